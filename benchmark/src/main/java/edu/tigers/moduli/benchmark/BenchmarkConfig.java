@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+
+/**
+ * Shared parameters of the synthetic module configs.
+ */
+final class BenchmarkConfig
+{
+	/** maximum number of dependencies of each synthetic module */
+	static final int MAX_DEPENDENCIES = 4;
+	/** seed for choosing the dependencies, so that all benchmarks use the same graphs */
+	static final long SEED = 42;
+
+
+	private BenchmarkConfig()
+	{
+	}
+
+
+	static String writeConfig(final int moduleCount)
+	{
+		return SyntheticModules.writeConfig(moduleCount, MAX_DEPENDENCIES, SEED).toString();
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.jgrapht.traverse.TopologicalOrderIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.config.DependencyGraph;
+
+
+/**
+ * Measures building the dependency graph and ordering the modules topologically for growing module counts.
+ * The jgrapht variant is the implementation that was used before {@link DependencyGraph}:
+ * a {@link DirectedAcyclicGraph}, which checks for cycles on each added edge, ordered into a linked list.
+ * The graphs are generated directly, so that no module classes are needed for large counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyGraphBenchmark
+{
+	@Param({ "100", "1000", "10000", "100000" })
+	private int moduleCount;
+
+	private int[][] dependencies;
+	private int cycleEnd;
+
+
+	@Setup
+	public void setUp()
+	{
+		Random random = new Random(BenchmarkConfig.SEED);
+		dependencies = new int[moduleCount][];
+		dependencies[0] = new int[0];
+		for (int i = 1; i < moduleCount; i++)
+		{
+			dependencies[i] = random.ints(random.nextInt(BenchmarkConfig.MAX_DEPENDENCIES + 1), 0, i)
+					.distinct()
+					.toArray();
+		}
+		int[] dependentsOfFirst = buildIndexedGraph().getTransitiveDependents(0);
+		cycleEnd = dependentsOfFirst.length == 0 ? 0 : dependentsOfFirst[dependentsOfFirst.length - 1];
+	}
+
+
+	@Benchmark
+	public List<Integer> jgraphtOrder()
+	{
+		DirectedAcyclicGraph<Integer, DefaultEdge> graph = new DirectedAcyclicGraph<>(DefaultEdge.class);
+		for (int i = 0; i < moduleCount; i++)
+		{
+			graph.addVertex(i);
+			for (int dependency : dependencies[i])
+			{
+				graph.addVertex(dependency);
+				graph.addEdge(i, dependency);
+			}
+		}
+		List<Integer> orderedModules = new LinkedList<>();
+		new TopologicalOrderIterator<>(graph).forEachRemaining(m -> orderedModules.add(0, m));
+		return orderedModules;
+	}
+
+
+	@Benchmark
+	public int[] indexedOrder()
+	{
+		return buildIndexedGraph().getOrder();
+	}
+
+
+	@Benchmark
+	public int[][] indexedLevelSets()
+	{
+		return buildIndexedGraph().getLevelSets();
+	}
+
+
+	@Benchmark
+	public List<int[]> indexedCycleCheck()
+	{
+		// a back edge from the first module to one of its transitive dependents closes a long cycle
+		DependencyGraph.Builder builder = builder();
+		builder.addEdge(0, cycleEnd);
+		return builder.build().findCycles();
+	}
+
+
+	private DependencyGraph buildIndexedGraph()
+	{
+		return builder().build();
+	}
+
+
+	private DependencyGraph.Builder builder()
+	{
+		DependencyGraph.Builder builder = DependencyGraph.builder(moduleCount);
+		for (int i = 0; i < moduleCount; i++)
+		{
+			for (int dependency : dependencies[i])
+			{
+				builder.addEdge(i, dependency);
+			}
+		}
+		return builder;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.LatencyHistogram;
+import edu.tigers.moduli.ModuleHealth;
+
+
+/**
+ * Measures the cost of a heartbeat on the hot path of a module, recorded from several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class HealthBenchmark
+{
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	private final ModuleHealth health = new ModuleHealth();
+
+
+	@Benchmark
+	public void record()
+	{
+		histogram.record(System.nanoTime() & 0xFFFFFFL);
+	}
+
+
+	@Benchmark
+	public void heartbeat()
+	{
+		health.heartbeat();
+	}
+
+
+	@Benchmark
+	public LatencyHistogram.LatencySnapshot snapshot()
+	{
+		return histogram.getSnapshot();
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.Moduli;
+import edu.tigers.moduli.exceptions.InitModuleException;
+import edu.tigers.moduli.exceptions.StartModuleException;
+
+
+/**
+ * Measures the overhead of a full start/stop cycle of modules that do nothing themselves,
+ * in sequential and parallel lifecycle mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LifecycleBenchmark
+{
+	@Param({ "10", "100", "1000" })
+	private int moduleCount;
+
+	@Param({ "false", "true" })
+	private boolean parallel;
+
+	private Moduli moduli;
+
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		moduli = new Moduli();
+		moduli.loadModules(BenchmarkConfig.writeConfig(moduleCount));
+		moduli.setParallelLifecycle(parallel);
+	}
+
+
+	@Benchmark
+	public Moduli startStopModules() throws InitModuleException, StartModuleException
+	{
+		moduli.startModules();
+		moduli.stopModules();
+		return moduli;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.Moduli;
+import edu.tigers.moduli.config.CompiledConfigCache;
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * Measures {@link Moduli#loadModules(String)}: parsing the config, constructing the modules and resolving the
+ * dependencies, with and without a compiled config from the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadModulesBenchmark
+{
+	@Param({ "10", "100", "1000" })
+	private int moduleCount;
+
+	private String configFile;
+
+
+	@Setup
+	public void setUp()
+	{
+		configFile = BenchmarkConfig.writeConfig(moduleCount);
+	}
+
+
+	@Benchmark
+	public Moduli loadModules() throws LoadModulesException, DependencyException
+	{
+		Moduli moduli = new Moduli();
+		moduli.setConfigCache(new CompiledConfigCache(null));
+		moduli.loadModules(configFile);
+		return moduli;
+	}
+
+
+	@Benchmark
+	public Moduli loadModulesCached() throws LoadModulesException, DependencyException
+	{
+		Moduli moduli = new Moduli();
+		moduli.loadModules(configFile);
+		return moduli;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.ModuleConstructors;
+
+
+/**
+ * Compares the ways to create a module instance: the reflective lookup that Moduli used before the constructor
+ * cache, the cached constructor function and a direct constructor call as baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleConstructionBenchmark
+{
+	private Class<? extends AModule> implementation;
+	private Supplier<AModule> constructor;
+
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticModules.ensureGenerated(1);
+		implementation = SyntheticModules.getImplementation(0);
+		constructor = ModuleConstructors.get(implementation);
+	}
+
+
+	@Benchmark
+	public AModule reflective() throws ReflectiveOperationException
+	{
+		Constructor<? extends AModule> c = implementation.getDeclaredConstructor();
+		c.setAccessible(true);
+		return c.newInstance();
+	}
+
+
+	@Benchmark
+	public AModule cachedLookup()
+	{
+		return ModuleConstructors.create(implementation);
+	}
+
+
+	@Benchmark
+	public AModule cachedConstructor()
+	{
+		return constructor.get();
+	}
+
+
+	@Benchmark
+	public AModule direct()
+	{
+		return new BenchmarkModule();
+	}
+
+
+	/**
+	 * A module with a plain constructor for the baseline.
+	 */
+	public static class BenchmarkModule extends AModule
+	{
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.ModuleHandle;
+import edu.tigers.moduli.Moduli;
+
+
+/**
+ * Measures module lookups by id, by implementation class and for modules that are not loaded.
+ * The stream scans are the lookup strategy that was used for implementation classes before the module index.
+ * Iterating all modules reads the registry snapshot without copying it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleLookupBenchmark
+{
+	@Param({ "10", "100", "1000" })
+	private int moduleCount;
+
+	private Moduli moduli;
+	private Class<? extends AModule> id;
+	private Class<? extends AModule> implementation;
+	private Class<? extends AModule> missing;
+	private ModuleHandle<? extends AModule> handle;
+
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		moduli = new Moduli();
+		moduli.loadModules(BenchmarkConfig.writeConfig(moduleCount));
+		id = SyntheticModules.getId(moduleCount / 2);
+		implementation = SyntheticModules.getImplementation(moduleCount / 2);
+		missing = SyntheticModules.getImplementation(moduleCount);
+		handle = moduli.getModuleHandle(implementation);
+	}
+
+
+	@Benchmark
+	public AModule getModuleById()
+	{
+		return moduli.getModule(id);
+	}
+
+
+	@Benchmark
+	public AModule getModuleByImplementation()
+	{
+		return moduli.getModule(implementation);
+	}
+
+
+	@Benchmark
+	public Optional<? extends AModule> getModuleOptById()
+	{
+		return moduli.getModuleOpt(id);
+	}
+
+
+	@Benchmark
+	public Optional<? extends AModule> getModuleOptByImplementation()
+	{
+		return moduli.getModuleOpt(implementation);
+	}
+
+
+	@Benchmark
+	public boolean isModuleLoadedById()
+	{
+		return moduli.isModuleLoaded(id);
+	}
+
+
+	@Benchmark
+	public boolean isModuleLoadedByImplementation()
+	{
+		return moduli.isModuleLoaded(implementation);
+	}
+
+
+	@Benchmark
+	public boolean isModuleLoadedMissing()
+	{
+		return moduli.isModuleLoaded(missing);
+	}
+
+
+	@Benchmark
+	public AModule moduleHandle()
+	{
+		return handle.get();
+	}
+
+
+	@Benchmark
+	public int iterateModules()
+	{
+		int count = 0;
+		for (AModule module : moduli.getModules())
+		{
+			count += module.getDependencies().size();
+		}
+		return count;
+	}
+
+
+	@Benchmark
+	public Optional<AModule> streamScanByImplementation()
+	{
+		return moduli.getModules().stream()
+				.filter(m -> m.getClass().equals(implementation))
+				.findFirst();
+	}
+
+
+	@Benchmark
+	public boolean streamScanMissing()
+	{
+		return moduli.getModules().stream()
+				.map(Object::getClass)
+				.anyMatch(c -> c.equals(missing));
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.tigers.moduli.Moduli;
+import edu.tigers.moduli.ModuliBlueprint;
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * Measures the throughput of creating many Moduli instances for the same config concurrently,
+ * from the (cached) config file and from a shared {@link ModuliBlueprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class MultiInstanceBenchmark
+{
+	@Param({ "10", "100" })
+	private int moduleCount;
+
+	private String configFile;
+	private ModuliBlueprint blueprint;
+
+
+	@Setup
+	public void setUp() throws LoadModulesException, DependencyException
+	{
+		configFile = BenchmarkConfig.writeConfig(moduleCount);
+		blueprint = ModuliBlueprint.load(configFile);
+	}
+
+
+	@Benchmark
+	public Moduli loadFromConfigFile() throws LoadModulesException, DependencyException
+	{
+		Moduli moduli = new Moduli();
+		moduli.loadModules(configFile);
+		return moduli;
+	}
+
+
+	@Benchmark
+	public Moduli instantiateBlueprint() throws LoadModulesException
+	{
+		return blueprint.instantiate();
+	}
+}
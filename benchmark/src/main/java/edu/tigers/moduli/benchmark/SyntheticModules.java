@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.benchmark.generated.GeneratedModules;
+
+
+/**
+ * Generates module classes and module configs of arbitrary size for the benchmarks.
+ * <p>
+ * For each index, an abstract module id class and an implementation class are compiled
+ * and defined in the package of {@link GeneratedModules}, so that they can be loaded by name from the config.
+ * </p>
+ */
+public final class SyntheticModules
+{
+	private static final String PACKAGE = GeneratedModules.class.getPackageName();
+	private static final List<Class<? extends AModule>> IDS = new ArrayList<>();
+	private static final List<Class<? extends AModule>> IMPLEMENTATIONS = new ArrayList<>();
+
+
+	private SyntheticModules()
+	{
+	}
+
+
+	/**
+	 * Make sure that the module classes for the indices [0, count) exist.
+	 *
+	 * @param count the number of modules
+	 */
+	public static synchronized void ensureGenerated(final int count)
+	{
+		if (IDS.size() >= count)
+		{
+			return;
+		}
+		try
+		{
+			generate(IDS.size(), count);
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		} catch (IllegalAccessException e)
+		{
+			throw new IllegalStateException("Could not define synthetic modules", e);
+		}
+	}
+
+
+	/**
+	 * @param index the module index
+	 * @return the module id class
+	 */
+	public static synchronized Class<? extends AModule> getId(final int index)
+	{
+		ensureGenerated(index + 1);
+		return IDS.get(index);
+	}
+
+
+	/**
+	 * @param index the module index
+	 * @return the implementation class of the module
+	 */
+	public static synchronized Class<? extends AModule> getImplementation(final int index)
+	{
+		ensureGenerated(index + 1);
+		return IMPLEMENTATIONS.get(index);
+	}
+
+
+	/**
+	 * Write a module config with the modules [0, count).
+	 * Each module depends on up to maxDependencies randomly chosen modules with a lower index,
+	 * so the config is always acyclic.
+	 *
+	 * @param count the number of modules
+	 * @param maxDependencies the maximum number of dependencies per module
+	 * @param seed the seed for choosing the dependencies
+	 * @return the path to the temporary config file
+	 */
+	public static Path writeConfig(final int count, final int maxDependencies, final long seed)
+	{
+		ensureGenerated(count);
+		Random rnd = new Random(seed);
+		try
+		{
+			Path file = Files.createTempFile("moduli-" + count + "-", ".xml");
+			file.toFile().deleteOnExit();
+			try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+			{
+				out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<moduleBenchmark>\n");
+				out.write("  <globalConfiguration>\n    <environment>BENCHMARK</environment>\n  </globalConfiguration>\n");
+				for (int i = 0; i < count; i++)
+				{
+					out.write("  <module id=\"" + IDS.get(i).getName() + "\">\n");
+					out.write("    <implementation>" + IMPLEMENTATIONS.get(i).getName() + "</implementation>\n");
+					out.write("    <properties><index>" + i + "</index></properties>\n");
+					if (i > 0)
+					{
+						int numDependencies = rnd.nextInt(Math.min(i, maxDependencies) + 1);
+						rnd.ints(0, i).distinct().limit(numDependencies).forEach(d -> writeDependency(out, d));
+					}
+					out.write("  </module>\n");
+				}
+				out.write("</moduleBenchmark>\n");
+			}
+			return file;
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private static void writeDependency(final Writer out, final int index)
+	{
+		try
+		{
+			out.write("    <dependency>" + IDS.get(index).getName() + "</dependency>\n");
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static void generate(final int from, final int to) throws IOException, IllegalAccessException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null)
+		{
+			throw new IllegalStateException("Synthetic modules require a JDK");
+		}
+
+		Path dir = Files.createTempDirectory("moduli-synthetic");
+		List<String> args = new ArrayList<>(List.of(
+				"-d", dir.toString(),
+				"-cp", System.getProperty("java.class.path"),
+				"-nowarn"));
+		for (int i = from; i < to; i++)
+		{
+			args.add(writeSource(dir, idName(i), "public abstract class " + idName(i) + " extends "
+					+ AModule.class.getName() + " {}"));
+			args.add(writeSource(dir, implementationName(i), "public class " + implementationName(i) + " extends "
+					+ idName(i) + " {}"));
+		}
+		if (compiler.run(null, null, null, args.toArray(new String[0])) != 0)
+		{
+			throw new IllegalStateException("Could not compile synthetic modules");
+		}
+
+		Path classDir = dir.resolve(PACKAGE.replace('.', '/'));
+		for (int i = from; i < to; i++)
+		{
+			IDS.add((Class<? extends AModule>) GeneratedModules.lookup()
+					.defineClass(Files.readAllBytes(classDir.resolve(idName(i) + ".class"))));
+			IMPLEMENTATIONS.add((Class<? extends AModule>) GeneratedModules.lookup()
+					.defineClass(Files.readAllBytes(classDir.resolve(implementationName(i) + ".class"))));
+		}
+	}
+
+
+	private static String writeSource(final Path dir, final String className, final String body) throws IOException
+	{
+		Path file = dir.resolve(className + ".java");
+		Files.writeString(file, "package " + PACKAGE + ";\n" + body + "\n");
+		return file.toString();
+	}
+
+
+	private static String idName(final int index)
+	{
+		return String.format("ASyntheticModule%04d", index);
+	}
+
+
+	private static String implementationName(final int index)
+	{
+		return String.format("SyntheticModule%04d", index);
+	}
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.benchmark.generated;
+
+import java.lang.invoke.MethodHandles;
+
+
+/**
+ * Anchor for the package the synthetic modules are defined in.
+ */
+public final class GeneratedModules
+{
+	private GeneratedModules()
+	{
+	}
+
+
+	/**
+	 * @return a lookup that is allowed to define classes in this package
+	 */
+	public static MethodHandles.Lookup lookup()
+	{
+		return MethodHandles.lookup();
+	}
+}
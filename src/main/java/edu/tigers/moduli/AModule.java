@@ -1,12 +1,22 @@
 package edu.tigers.moduli;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration.SubnodeConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import edu.tigers.moduli.config.ModuleProperties;
+import edu.tigers.moduli.events.EventBus;
 import edu.tigers.moduli.exceptions.InitModuleException;
 import edu.tigers.moduli.exceptions.StartModuleException;
+import edu.tigers.moduli.listenerVariables.IModuleStateObserver;
+import edu.tigers.moduli.listenerVariables.ModuleState;
 
 
 /**
@@ -14,10 +24,19 @@ import edu.tigers.moduli.exceptions.StartModuleException;
  */
 public abstract class AModule
 {
+	private static final Logger log = LogManager.getLogger(AModule.class.getName());
+	
 	private Class<? extends AModule> clazz;
 	private SubnodeConfiguration subnodeConfiguration;
 	private List<Class<? extends AModule>> dependencies = new ArrayList<>();
 	private boolean startModule = true;
+	private final AtomicReference<ModuleState> state = new AtomicReference<>(ModuleState.CONSTRUCTED);
+	private final List<IModuleStateObserver> stateObservers = new CopyOnWriteArrayList<>();
+	private Object properties;
+	private ModuleExecutors executors;
+	private EventBus eventBus;
+	private final ModuleHealth health = new ModuleHealth();
+	private final ModuleResources resources = new ModuleResources();
 	
 	
 	/**
@@ -60,6 +79,54 @@ public abstract class AModule
 	}
 	
 	
+	/**
+	 * Capture the state of this stopped module, like caches or learned parameters, to restore it on the next start
+	 * with {@link #restoreState(ByteBuffer)}. Only called if Moduli has a state snapshot file.
+	 *
+	 * @return the state between position and limit in a binary format of the module's choice,
+	 *         or null if there is nothing to keep
+	 */
+	public ByteBuffer snapshotState()
+	{
+		return null;
+	}
+	
+	
+	/**
+	 * Restore the state captured by {@link #snapshotState()} before the module is started.
+	 * Only called if the state was captured by the same module class with the same module properties.
+	 * If this method throws, the module is started without the state.
+	 *
+	 * @param state a read-only buffer, backed by the memory-mapped snapshot file
+	 */
+	public void restoreState(final ByteBuffer state)
+	{
+		// does nothing by default
+	}
+	
+	
+	/**
+	 * Check the health of this started module. Called periodically by the watchdog thread of Moduli,
+	 * so implementations have to be thread-safe and fast.
+	 *
+	 * @return true, if the module works as expected
+	 */
+	public boolean checkHealth()
+	{
+		return true;
+	}
+	
+	
+	/**
+	 * Signal that this module made progress, typically once per processing cycle.
+	 * Modules with a heartbeat deadline are reported as stalled by the watchdog, if they miss it.
+	 */
+	protected void heartbeat()
+	{
+		health.heartbeat();
+	}
+	
+	
 	/**
 	 * @return the module clazz
 	 */
@@ -111,6 +178,77 @@ public abstract class AModule
 	}
 	
 	
+	/**
+	 * Get the typed properties of this module, which are bound once when the modules are loaded.
+	 *
+	 * @param type the class declared by {@link ModuleProperties} on this module
+	 * @return the properties
+	 * @throws IllegalStateException if the module does not declare properties of the given type
+	 */
+	public <T> T getProperties(final Class<T> type)
+	{
+		if (!type.isInstance(properties))
+		{
+			throw new IllegalStateException("Module " + this + " has no properties of type " + type.getName());
+		}
+		return type.cast(properties);
+	}
+	
+	
+	void setProperties(final Object properties)
+	{
+		this.properties = properties;
+	}
+	
+	
+	/**
+	 * @return the executors that are configured in the module properties and managed by Moduli
+	 */
+	public ModuleExecutors getExecutors()
+	{
+		return executors;
+	}
+	
+	
+	void setExecutors(final ModuleExecutors executors)
+	{
+		this.executors = executors;
+	}
+	
+	
+	/**
+	 * @return the heartbeats, cycle latencies and health status of this module
+	 */
+	public ModuleHealth getHealth()
+	{
+		return health;
+	}
+	
+	
+	/**
+	 * @return the CPU time and allocations of the threads of this module
+	 */
+	public ModuleResources getResources()
+	{
+		return resources;
+	}
+	
+	
+	/**
+	 * @return the event bus for communication with other modules
+	 */
+	public EventBus getEventBus()
+	{
+		return eventBus;
+	}
+	
+	
+	void setEventBus(final EventBus eventBus)
+	{
+		this.eventBus = eventBus;
+	}
+	
+	
 	@Override
 	public String toString()
 	{
@@ -134,4 +272,113 @@ public abstract class AModule
 	{
 		this.startModule = startModule;
 	}
+	
+	
+	/**
+	 * @return the current lifecycle state of this module
+	 */
+	public ModuleState getState()
+	{
+		return state.get();
+	}
+	
+	
+	/**
+	 * Change the state, if the transition is allowed by {@link ModuleState#canTransitionTo(ModuleState)}.
+	 *
+	 * @param newState the new state
+	 * @return true, if the module is in the new state afterwards, false if the transition was rejected
+	 */
+	boolean setState(final ModuleState newState)
+	{
+		ModuleState oldState;
+		do
+		{
+			oldState = state.get();
+			if (oldState == newState)
+			{
+				return true;
+			}
+			if (!oldState.canTransitionTo(newState))
+			{
+				log.warn("Rejected state transition of module " + this + " from " + oldState + " to " + newState);
+				return false;
+			}
+		} while (!state.compareAndSet(oldState, newState));
+		for (IModuleStateObserver observer : stateObservers)
+		{
+			try
+			{
+				observer.onModuleStateChanged(this, oldState, newState);
+			} catch (RuntimeException e)
+			{
+				// the transition is already done, so a failing observer must not fail the lifecycle action
+				log.error("State observer of module " + this + " failed", e);
+			}
+		}
+		return true;
+	}
+	
+	
+	/**
+	 * Add an observer for lifecycle state changes of this module.
+	 *
+	 * @param observer the observer
+	 */
+	public void addStateObserver(final IModuleStateObserver observer)
+	{
+		stateObservers.add(observer);
+	}
+	
+	
+	/**
+	 * Remove an observer for lifecycle state changes.
+	 *
+	 * @param observer the observer
+	 */
+	public void removeStateObserver(final IModuleStateObserver observer)
+	{
+		stateObservers.remove(observer);
+	}
+	
+	
+	/**
+	 * Wait for this module to reach a lifecycle state.
+	 * The future is completed on the lifecycle thread, so use the async variants of {@link CompletableFuture}
+	 * for longer running follow-up work.
+	 *
+	 * @param expectedState the state to wait for
+	 * @return a future that completes when the module is in the given state,
+	 *         or fails if the module reaches {@link ModuleState#FAILED} instead or is deinitialized without
+	 *         reaching the state. The observer is removed when the future completes or is cancelled.
+	 */
+	public CompletableFuture<AModule> awaitState(final ModuleState expectedState)
+	{
+		CompletableFuture<AModule> future = new CompletableFuture<>();
+		IModuleStateObserver observer = (module, oldState, newState) -> completeIfReached(future, newState,
+				expectedState, true);
+		stateObservers.add(observer);
+		future.whenComplete((m, e) -> stateObservers.remove(observer));
+		completeIfReached(future, state.get(), expectedState, false);
+		return future;
+	}
+	
+	
+	private void completeIfReached(final CompletableFuture<AModule> future, final ModuleState currentState,
+			final ModuleState expectedState, final boolean changed)
+	{
+		if (currentState == expectedState)
+		{
+			future.complete(this);
+		} else if (currentState == ModuleState.FAILED)
+		{
+			future.completeExceptionally(new IllegalStateException("Module " + this + " failed before reaching state "
+					+ expectedState));
+		} else if (changed && currentState == ModuleState.DEINITIALIZED)
+		{
+			// the lifecycle ended without the expected state, e.g. STARTED for a module that is not started
+			future.completeExceptionally(new IllegalStateException("Module " + this
+					+ " was deinitialized before reaching state " + expectedState));
+		}
+	}
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Runs a lifecycle action for a list of modules on an executor.
+ * Each module is scheduled as soon as all of its predecessors have finished,
+ * so independent modules are processed concurrently.
+ */
+final class DependencyScheduler
+{
+	private final List<AModule> order;
+	private final Function<AModule, Collection<AModule>> predecessors;
+
+
+	/**
+	 * @param order all modules, sorted such that every module comes after its predecessors
+	 * @param predecessors the modules that have to be finished before the given module may run,
+	 *           predecessors that are not part of the order are ignored
+	 */
+	DependencyScheduler(final List<AModule> order, final Function<AModule, Collection<AModule>> predecessors)
+	{
+		this.order = order;
+		this.predecessors = predecessors;
+	}
+
+
+	/**
+	 * Run the action for all modules. After the first failure, no further actions are scheduled.
+	 * This method returns when all actions that were already running have finished.
+	 *
+	 * @param executor the executor to run the actions on
+	 * @param action the lifecycle action
+	 * @throws ModuleActionException wrapping the first failed action
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	void run(final Executor executor, final ModuleAction action) throws ModuleActionException, InterruptedException
+	{
+		AtomicReference<ModuleActionException> failure = new AtomicReference<>();
+		Map<AModule, CompletableFuture<Void>> futures = new HashMap<>();
+		for (AModule module : order)
+		{
+			CompletableFuture<?>[] before = predecessors.apply(module).stream()
+					.map(futures::get)
+					.filter(Objects::nonNull)
+					.toArray(CompletableFuture[]::new);
+			futures.put(module, CompletableFuture.allOf(before)
+					.thenRunAsync(() -> apply(module, action, failure), executor));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).get();
+		} catch (ExecutionException e)
+		{
+			failure.compareAndSet(null, new ModuleActionException(null, e.getCause()));
+		}
+
+		if (failure.get() != null)
+		{
+			throw failure.get();
+		}
+	}
+
+
+	/**
+	 * Run the action for all modules, regardless of failures.
+	 * A module whose action failed or did not finish within the timeout counts as finished,
+	 * so that the remaining modules can proceed. The action of a timed out module keeps running in the background.
+	 * The timeout starts when the action starts running, so time spent waiting for a thread of the executor
+	 * does not count.
+	 *
+	 * @param executor the executor to run the actions on
+	 * @param action the lifecycle action
+	 * @param timeout the maximum duration of a single action
+	 * @param errorHandler called for each failed or timed out action
+	 * @return the modules whose action timed out and may still be running
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	Set<AModule> runTolerant(final Executor executor, final ModuleAction action, final Duration timeout,
+			final BiConsumer<AModule, Throwable> errorHandler) throws InterruptedException
+	{
+		Set<AModule> timedOut = ConcurrentHashMap.newKeySet();
+		Map<AModule, CompletableFuture<Void>> futures = new HashMap<>();
+		for (AModule module : order)
+		{
+			CompletableFuture<?>[] before = predecessors.apply(module).stream()
+					.map(futures::get)
+					.filter(Objects::nonNull)
+					.toArray(CompletableFuture[]::new);
+			CompletableFuture<Void> result = new CompletableFuture<>();
+			CompletableFuture.allOf(before).thenRun(() -> submitWithTimeout(executor, module, action, timeout, result));
+			futures.put(module, result.handle((v, e) -> {
+				if (e != null)
+				{
+					Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+					if (cause instanceof TimeoutException)
+					{
+						timedOut.add(module);
+					}
+					errorHandler.accept(module, cause);
+				}
+				return null;
+			}));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).get();
+		} catch (ExecutionException e)
+		{
+			// failures are handled per module, so this is an error thrown by the error handler
+			throw new IllegalStateException("Unexpected failure while running lifecycle actions", e.getCause());
+		}
+		return timedOut;
+	}
+
+
+	private void submitWithTimeout(final Executor executor, final AModule module, final ModuleAction action,
+			final Duration timeout, final CompletableFuture<Void> result)
+	{
+		try
+		{
+			executor.execute(() -> {
+				result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+				try
+				{
+					action.apply(module);
+					result.complete(null);
+				} catch (Throwable e)
+				{
+					result.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e)
+		{
+			result.completeExceptionally(e);
+		}
+	}
+
+
+	/**
+	 * Run the action for all modules and isolate failures.
+	 * A module is skipped if one of its predecessors failed or was skipped,
+	 * all other modules are processed regardless of failures.
+	 *
+	 * @param executor the executor to run the actions on
+	 * @param action the lifecycle action
+	 * @return the failed and skipped modules
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	Outcome runIsolated(final Executor executor, final ModuleAction action) throws InterruptedException
+	{
+		Outcome outcome = new Outcome();
+		Map<AModule, CompletableFuture<Boolean>> futures = new HashMap<>();
+		for (AModule module : order)
+		{
+			List<CompletableFuture<Boolean>> before = predecessors.apply(module).stream()
+					.map(futures::get)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			futures.put(module, CompletableFuture.allOf(before.toArray(new CompletableFuture[0]))
+					.thenApplyAsync(v -> {
+						if (!before.stream().allMatch(CompletableFuture::join))
+						{
+							outcome.skipped.add(module);
+							return false;
+						}
+						try
+						{
+							action.apply(module);
+							return true;
+						} catch (Exception e)
+						{
+							outcome.failed.put(module, e);
+							return false;
+						}
+					}, executor));
+		}
+
+		try
+		{
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).get();
+		} catch (ExecutionException e)
+		{
+			// actions never complete exceptionally, so this is an error thrown by the action
+			throw new IllegalStateException("Unexpected failure while running lifecycle actions", e.getCause());
+		}
+		return outcome;
+	}
+
+
+	private void apply(final AModule module, final ModuleAction action,
+			final AtomicReference<ModuleActionException> failure)
+	{
+		if (failure.get() != null)
+		{
+			return;
+		}
+		try
+		{
+			action.apply(module);
+		} catch (Exception e)
+		{
+			failure.compareAndSet(null, new ModuleActionException(module, e));
+		}
+	}
+
+
+	/**
+	 * A lifecycle action that is applied to a single module.
+	 */
+	@FunctionalInterface
+	interface ModuleAction
+	{
+		/**
+		 * @param module the module to apply the action to
+		 * @throws Exception if the action failed
+		 */
+		void apply(AModule module) throws Exception;
+	}
+
+	/**
+	 * The modules that failed or were skipped by {@link #runIsolated(Executor, ModuleAction)}.
+	 */
+	static class Outcome
+	{
+		private final Map<AModule, Throwable> failed = new ConcurrentHashMap<>();
+		private final Set<AModule> skipped = ConcurrentHashMap.newKeySet();
+
+
+		/**
+		 * @return the failures by module
+		 */
+		Map<AModule, Throwable> getFailed()
+		{
+			return failed;
+		}
+
+
+		/**
+		 * @return the modules that were not processed, because a predecessor failed or was skipped
+		 */
+		Set<AModule> getSkipped()
+		{
+			return skipped;
+		}
+
+
+		/**
+		 * @param module a module
+		 * @return true, if the module failed or was skipped
+		 */
+		boolean isAffected(final AModule module)
+		{
+			return failed.containsKey(module) || skipped.contains(module);
+		}
+	}
+
+	/**
+	 * Signals that a lifecycle action failed for a module.
+	 */
+	static class ModuleActionException extends Exception
+	{
+		private static final long serialVersionUID = 4318924516045317713L;
+		private final transient AModule module;
+
+
+		ModuleActionException(final AModule module, final Throwable cause)
+		{
+			super(cause);
+			this.module = module;
+		}
+
+
+		/**
+		 * @return the module whose action failed, or null if the failure is not related to a single module
+		 */
+		AModule getModule()
+		{
+			return module;
+		}
+	}
+}
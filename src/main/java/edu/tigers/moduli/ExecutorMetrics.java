@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+/**
+ * A snapshot of the load of an executor managed by {@link ModuleExecutors}.
+ */
+public class ExecutorMetrics
+{
+	private final String name;
+	private final ExecutorType type;
+	private final int threads;
+	private final int activeTasks;
+	private final long queueDepth;
+	private final long completedTasks;
+	private final double utilization;
+
+
+	ExecutorMetrics(final String name, final ExecutorType type, final int threads, final int activeTasks,
+			final long queueDepth, final long completedTasks, final double utilization)
+	{
+		this.name = name;
+		this.type = type;
+		this.threads = threads;
+		this.activeTasks = activeTasks;
+		this.queueDepth = queueDepth;
+		this.completedTasks = completedTasks;
+		this.utilization = utilization;
+	}
+
+
+	/**
+	 * @return the name of the executor
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+
+	/**
+	 * @return the type of the executor
+	 */
+	public ExecutorType getType()
+	{
+		return type;
+	}
+
+
+	/**
+	 * @return the configured number of threads
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+
+	/**
+	 * @return the number of tasks that are currently running
+	 */
+	public int getActiveTasks()
+	{
+		return activeTasks;
+	}
+
+
+	/**
+	 * @return the number of tasks that wait for a thread
+	 */
+	public long getQueueDepth()
+	{
+		return queueDepth;
+	}
+
+
+	/**
+	 * @return the number of finished tasks
+	 */
+	public long getCompletedTasks()
+	{
+		return completedTasks;
+	}
+
+
+	/**
+	 * The utilization is the time the threads spent on tasks relative to the time the threads were
+	 * available since the executor was created. For {@link ExecutorType#VIRTUAL}, which creates a thread per task,
+	 * the available threads are the configured threads or the largest number of threads that ran at the same time,
+	 * if that is higher. For {@link ExecutorType#FORK_JOIN}, it is the current fraction of active threads.
+	 *
+	 * @return the utilization between 0 and 1
+	 */
+	public double getUtilization()
+	{
+		return utilization;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s[%s, threads=%d, active=%d, queued=%d, completed=%d, utilization=%.1f%%]", name, type,
+				threads, activeTasks, queueDepth, completedTasks, utilization * 100);
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+/**
+ * The kinds of executors that Moduli manages for modules, see {@link ModuleExecutors}.
+ */
+public enum ExecutorType
+{
+	/** a fixed number of platform threads with an unbounded queue */
+	FIXED,
+	/** a fixed number of platform threads for delayed and periodic tasks */
+	SCHEDULED,
+	/** a work stealing {@link java.util.concurrent.ForkJoinPool} */
+	FORK_JOIN,
+	/** a single platform thread, tasks are executed in order */
+	SINGLE,
+	/** a new virtual thread per task, falls back to platform threads if the JVM does not support virtual threads */
+	VIRTUAL,
+}
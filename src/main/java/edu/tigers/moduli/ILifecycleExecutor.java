@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.concurrent.Executor;
+
+
+/**
+ * Executes the lifecycle actions of modules in parallel lifecycle mode.
+ * Moduli names the executing thread after the module and phase and sets up the log context for each action,
+ * so implementations only have to provide threads.
+ */
+@FunctionalInterface
+public interface ILifecycleExecutor extends Executor
+{
+	/**
+	 * Release the resources of this executor. Called when the executor is replaced.
+	 */
+	default void shutdown()
+	{
+		// nothing to release by default
+	}
+
+
+	/**
+	 * @return an executor with virtual threads, if the JVM supports them, otherwise an executor with platform threads
+	 */
+	static ILifecycleExecutor createDefault()
+	{
+		if (VirtualThreadLifecycleExecutor.isAvailable())
+		{
+			return new VirtualThreadLifecycleExecutor();
+		}
+		return new PlatformThreadLifecycleExecutor();
+	}
+}
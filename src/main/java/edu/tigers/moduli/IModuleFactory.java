@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.List;
+
+
+/**
+ * Creates a module without reflection. Implementations are generated for classes annotated with
+ * {@link edu.tigers.moduli.annotation.Module} and found through the {@link java.util.ServiceLoader},
+ * see {@link ModuleFactories}.
+ */
+public interface IModuleFactory
+{
+	/**
+	 * @return the module id
+	 */
+	Class<? extends AModule> getId();
+
+
+	/**
+	 * @return the implementation that is created by this factory
+	 */
+	Class<? extends AModule> getImplementation();
+
+
+	/**
+	 * @return the ids of the modules the module depends on
+	 */
+	List<Class<? extends AModule>> getDependencies();
+
+
+	/**
+	 * @return a new instance of the module
+	 */
+	AModule create();
+}
@@ -24,4 +24,16 @@ public interface IModuliStateObserver
 	default void onModuliStateChanged(final ModulesState state)
 	{
 	}
+	
+	
+	/**
+	 * Called after the state changed. Delegates to {@link #onModuliStateChanged(ModulesState)} by default.
+	 *
+	 * @param oldState the previous state
+	 * @param newState the new state
+	 */
+	default void onModuliStateChanged(final ModulesState oldState, final ModulesState newState)
+	{
+		onModuliStateChanged(newState);
+	}
 }
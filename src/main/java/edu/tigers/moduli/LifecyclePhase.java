@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+/**
+ * The phases in the lifecycle of a module.
+ */
+public enum LifecyclePhase
+{
+	/** creating the module instance */
+	CONSTRUCT,
+	/** {@link AModule#initModule()} */
+	INIT,
+	/** {@link AModule#startModule()} */
+	START,
+	/** {@link AModule#stopModule()} */
+	STOP,
+	/** {@link AModule#deinitModule()} */
+	DEINIT,
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * A snapshot of the measured lifecycle times of all modules, including the critical paths of the startup.
+ * The modules are always constructed one after another. With a parallel lifecycle, independent modules are
+ * initialized in parallel, and all modules are initialized before the first one is started.
+ * So the critical path of the init phase is the chain of dependent modules with the highest summed init time,
+ * and likewise for the start phase. The construction time plus the durations of both critical paths is the
+ * shortest startup time that the parallel lifecycle can reach with the measured times.
+ */
+public class LifecycleReport
+{
+	private final List<ModuleTiming> moduleTimings;
+	private final Duration constructionTime;
+	private final List<Class<? extends AModule>> initCriticalPath;
+	private final Duration initCriticalPathDuration;
+	private final List<Class<? extends AModule>> startCriticalPath;
+	private final Duration startCriticalPathDuration;
+
+
+	private LifecycleReport(final List<ModuleTiming> moduleTimings, final Duration constructionTime,
+			final List<Class<? extends AModule>> initCriticalPath, final Duration initCriticalPathDuration,
+			final List<Class<? extends AModule>> startCriticalPath, final Duration startCriticalPathDuration)
+	{
+		this.moduleTimings = Collections.unmodifiableList(moduleTimings);
+		this.constructionTime = constructionTime;
+		this.initCriticalPath = Collections.unmodifiableList(initCriticalPath);
+		this.initCriticalPathDuration = initCriticalPathDuration;
+		this.startCriticalPath = Collections.unmodifiableList(startCriticalPath);
+		this.startCriticalPathDuration = startCriticalPathDuration;
+	}
+
+
+	/**
+	 * @param graph the dependency graph of all modules
+	 * @param timings the current timings by module id
+	 * @return a new report
+	 */
+	static LifecycleReport create(final ModuleGraph graph,
+			final Map<Class<? extends AModule>, ModuleTiming> timings)
+	{
+		List<ModuleTiming> snapshot = new ArrayList<>();
+		Map<Class<? extends AModule>, ModuleTiming> byId = new HashMap<>();
+		long constructionNanos = 0;
+		for (Class<? extends AModule> moduleId : graph.getModules())
+		{
+			ModuleTiming timing = timings.getOrDefault(moduleId, new ModuleTiming(moduleId)).copy();
+			snapshot.add(timing);
+			byId.put(moduleId, timing);
+			constructionNanos += measured(timing, LifecyclePhase.CONSTRUCT);
+		}
+
+		ToLongFunction<Class<? extends AModule>> initNanos = id -> measured(byId.get(id), LifecyclePhase.INIT);
+		ToLongFunction<Class<? extends AModule>> startNanos = id -> measured(byId.get(id), LifecyclePhase.START);
+		List<Class<? extends AModule>> initCriticalPath = graph.getCriticalPath(initNanos);
+		List<Class<? extends AModule>> startCriticalPath = graph.getCriticalPath(startNanos);
+		return new LifecycleReport(snapshot, Duration.ofNanos(constructionNanos),
+				initCriticalPath, Duration.ofNanos(initCriticalPath.stream().mapToLong(initNanos).sum()),
+				startCriticalPath, Duration.ofNanos(startCriticalPath.stream().mapToLong(startNanos).sum()));
+	}
+
+
+	private static long measured(final ModuleTiming timing, final LifecyclePhase phase)
+	{
+		// phases that were not measured yet count as zero
+		return Math.max(0, timing.getWallNanos(phase));
+	}
+
+
+	/**
+	 * @return the timings of all modules in startup order
+	 */
+	public List<ModuleTiming> getModuleTimings()
+	{
+		return moduleTimings;
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the timing of the module, if the module is loaded
+	 */
+	public Optional<ModuleTiming> getModuleTiming(final Class<? extends AModule> moduleId)
+	{
+		return moduleTimings.stream().filter(t -> t.getModuleId().equals(moduleId)).findFirst();
+	}
+
+
+	/**
+	 * @return the summed construction time of all modules, which are constructed one after another
+	 */
+	public Duration getConstructionTime()
+	{
+		return constructionTime;
+	}
+
+
+	/**
+	 * @return the ids of the modules on the critical path of the init phase, each after its dependency
+	 */
+	public List<Class<? extends AModule>> getInitCriticalPath()
+	{
+		return initCriticalPath;
+	}
+
+
+	/**
+	 * @return the summed init time of the modules on the critical path of the init phase
+	 */
+	public Duration getInitCriticalPathDuration()
+	{
+		return initCriticalPathDuration;
+	}
+
+
+	/**
+	 * @return the ids of the modules on the critical path of the start phase, each after its dependency
+	 */
+	public List<Class<? extends AModule>> getStartCriticalPath()
+	{
+		return startCriticalPath;
+	}
+
+
+	/**
+	 * @return the summed start time of the modules on the critical path of the start phase
+	 */
+	public Duration getStartCriticalPathDuration()
+	{
+		return startCriticalPathDuration;
+	}
+
+
+	/**
+	 * @return the construction time plus the durations of the critical paths of the init and the start phase,
+	 *         the shortest startup time with a parallel lifecycle
+	 */
+	public Duration getCriticalPathDuration()
+	{
+		return constructionTime.plus(initCriticalPathDuration).plus(startCriticalPathDuration);
+	}
+
+
+	/**
+	 * @return the summed startup time of all modules
+	 */
+	public Duration getTotalStartupWallTime()
+	{
+		return moduleTimings.stream().map(ModuleTiming::getStartupWallTime).reduce(Duration.ZERO, Duration::plus);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("Lifecycle report (wall/cpu)\n");
+		moduleTimings.forEach(t -> sb.append("  ").append(t).append('\n'));
+		sb.append("Total startup: ").append(getTotalStartupWallTime().toMillis()).append("ms\n");
+		sb.append("Construction: ").append(constructionTime.toMillis()).append("ms\n");
+		sb.append("Init critical path (").append(initCriticalPathDuration.toMillis()).append("ms): ");
+		initCriticalPath.forEach(id -> sb.append(id.getSimpleName()).append(' '));
+		sb.append("\nStart critical path (").append(startCriticalPathDuration.toMillis()).append("ms): ");
+		startCriticalPath.forEach(id -> sb.append(id.getSimpleName()).append(' '));
+		sb.append("\nCritical path total: ").append(getCriticalPathDuration().toMillis()).append("ms");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/**
+ * Measures the wall-clock and CPU time of a lifecycle phase on the current thread.
+ */
+final class LifecycleStopwatch
+{
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private final long wallStart;
+	private final long cpuStart;
+
+
+	private LifecycleStopwatch()
+	{
+		cpuStart = currentThreadCpuTime();
+		wallStart = System.nanoTime();
+	}
+
+
+	static LifecycleStopwatch start()
+	{
+		return new LifecycleStopwatch();
+	}
+
+
+	void stop(final ModuleTiming timing, final LifecyclePhase phase)
+	{
+		long wall = System.nanoTime() - wallStart;
+		long cpuEnd = currentThreadCpuTime();
+		timing.record(phase, wall, cpuStart < 0 || cpuEnd < 0 ? -1 : cpuEnd - cpuStart);
+	}
+
+
+	private static long currentThreadCpuTime()
+	{
+		if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled())
+		{
+			return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+		}
+		return -1;
+	}
+}
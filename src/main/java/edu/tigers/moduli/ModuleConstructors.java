@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+
+/**
+ * Caches a constructor function per module class for modules without a generated factory.
+ * The function is created once per class with {@link LambdaMetafactory}, so that repeated loads call the no-arg
+ * constructor directly instead of going through reflection.
+ * If no lambda can be created for a class, a {@link MethodHandle} to the constructor is used instead.
+ */
+public final class ModuleConstructors
+{
+	private static final ClassValue<Supplier<AModule>> CONSTRUCTORS = new ClassValue<>()
+	{
+		@Override
+		protected Supplier<AModule> computeValue(final Class<?> type)
+		{
+			return createConstructor(type.asSubclass(AModule.class));
+		}
+	};
+
+
+	private ModuleConstructors()
+	{
+	}
+
+
+	/**
+	 * @param clazz the module implementation
+	 * @return the cached constructor function of the class
+	 * @throws IllegalArgumentException if the class is abstract or has no no-arg constructor
+	 */
+	public static Supplier<AModule> get(final Class<? extends AModule> clazz)
+	{
+		return CONSTRUCTORS.get(clazz);
+	}
+
+
+	/**
+	 * @param clazz the module implementation
+	 * @return a new instance of the class
+	 * @throws IllegalArgumentException if the class is abstract or has no no-arg constructor
+	 */
+	public static AModule create(final Class<? extends AModule> clazz)
+	{
+		return CONSTRUCTORS.get(clazz).get();
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static Supplier<AModule> createConstructor(final Class<? extends AModule> clazz)
+	{
+		if (Modifier.isAbstract(clazz.getModifiers()))
+		{
+			throw new IllegalArgumentException("Module " + clazz.getName() + " is abstract");
+		}
+		MethodHandle constructor;
+		MethodHandles.Lookup lookup;
+		try
+		{
+			lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+			constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+		} catch (NoSuchMethodException | IllegalAccessException e)
+		{
+			throw new IllegalArgumentException("Module " + clazz.getName() + " has no accessible no-arg constructor", e);
+		}
+
+		try
+		{
+			CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class), constructor, MethodType.methodType(clazz));
+			return (Supplier<AModule>) site.getTarget().invoke();
+		} catch (LambdaConversionException | IllegalArgumentException e)
+		{
+			// the lookup has no full privilege access to the class, e.g. because it is in another class loader
+			MethodHandle generic = constructor.asType(MethodType.methodType(AModule.class));
+			return () -> invoke(generic);
+		} catch (RuntimeException | Error e)
+		{
+			throw e;
+		} catch (Throwable e)
+		{
+			throw new IllegalStateException("Could not create constructor function for " + clazz.getName(), e);
+		}
+	}
+
+
+	private static AModule invoke(final MethodHandle constructor)
+	{
+		try
+		{
+			return (AModule) constructor.invokeExact();
+		} catch (RuntimeException | Error e)
+		{
+			throw e;
+		} catch (Throwable e)
+		{
+			throw new IllegalStateException("Exception in module constructor", e);
+		}
+	}
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * The named executors of a module. They are configured in the module properties, for example
+ *
+ * <pre>
+ * &lt;properties&gt;
+ *     &lt;executor name="io" type="FIXED" threads="2C"/&gt;
+ *     &lt;executor name="timer" type="SCHEDULED"/&gt;
+ * &lt;/properties&gt;
+ * </pre>
+ *
+ * The number of threads is either absolute or, with the suffix <code>C</code>, a multiple of the available CPUs.
+ * It defaults to the number of CPUs for {@link ExecutorType#FIXED}, {@link ExecutorType#FORK_JOIN}
+ * and {@link ExecutorType#VIRTUAL}, and to one for {@link ExecutorType#SCHEDULED} and {@link ExecutorType#SINGLE}.
+ * Executors are created on first access and shut down by Moduli after the module was stopped and after it was
+ * deinitialized. Executors can not be requested while they are shut down, until Moduli initializes, starts or
+ * deinitializes the module again. Then they are created anew.
+ * The platform threads of the executors are registered in the {@link ModuleResources} of the module.
+ */
+public final class ModuleExecutors
+{
+	/** the element of the module properties that configures an executor */
+	public static final String CONFIG_ELEMENT = "executor";
+	private static final Logger log = LogManager.getLogger(ModuleExecutors.class.getName());
+
+	private final String moduleName;
+	private final ModuleResources resources;
+	private final Map<String, ExecutorConfig> configs = new HashMap<>();
+	private final Map<String, ManagedExecutor> executors = new ConcurrentHashMap<>();
+	/** guarded by executors, so that no executor is created during or after a shutdown */
+	private boolean closed = false;
+
+
+	/**
+	 * @param moduleName the name of the module, used for the thread names
+	 * @param moduleConfig the module properties with the executor configurations
+	 * @param resources the resources of the module, in which the threads are registered
+	 */
+	ModuleExecutors(final String moduleName, final HierarchicalConfiguration moduleConfig,
+			final ModuleResources resources)
+	{
+		this.moduleName = moduleName;
+		this.resources = resources;
+		for (HierarchicalConfiguration executorConfig : moduleConfig.configurationsAt(CONFIG_ELEMENT))
+		{
+			String name = executorConfig.getString("[@name]");
+			if (name == null)
+			{
+				throw new IllegalArgumentException("Executor of module " + moduleName + " has no name");
+			}
+			ExecutorType type = ExecutorType.valueOf(executorConfig.getString("[@type]", ExecutorType.FIXED.name())
+					.toUpperCase());
+			int defaultThreads = type == ExecutorType.SCHEDULED || type == ExecutorType.SINGLE
+					? 1
+					: Runtime.getRuntime().availableProcessors();
+			int threads = type == ExecutorType.SINGLE
+					? 1
+					: parseThreads(executorConfig.getString("[@threads]"), defaultThreads);
+			configs.put(name, new ExecutorConfig(name, type, threads));
+		}
+	}
+
+
+	/**
+	 * @param value the configured number of threads, either absolute or with the suffix C relative to the CPUs
+	 * @param defaultThreads the number of threads if no value is configured
+	 * @return the number of threads, at least one
+	 */
+	static int parseThreads(final String value, final int defaultThreads)
+	{
+		if (value == null || value.isBlank())
+		{
+			return defaultThreads;
+		}
+		String trimmed = value.trim();
+		if (trimmed.endsWith("C") || trimmed.endsWith("c"))
+		{
+			double factor = Double.parseDouble(trimmed.substring(0, trimmed.length() - 1));
+			return Math.max(1, (int) Math.round(factor * Runtime.getRuntime().availableProcessors()));
+		}
+		return Math.max(1, Integer.parseInt(trimmed));
+	}
+
+
+	/**
+	 * @param name the name of the executor in the module properties
+	 * @return the executor
+	 * @throws IllegalArgumentException if there is no executor with this name
+	 * @throws IllegalStateException if the executors are shut down
+	 */
+	public ExecutorService getExecutor(final String name)
+	{
+		ExecutorConfig config = configs.get(name);
+		if (config == null)
+		{
+			throw new IllegalArgumentException("No executor '" + name + "' configured for module " + moduleName);
+		}
+		ManagedExecutor managed = executors.get(name);
+		if (managed != null)
+		{
+			return managed.executor;
+		}
+		synchronized (executors)
+		{
+			if (closed)
+			{
+				throw new IllegalStateException("The executors of module " + moduleName + " are shut down");
+			}
+			return executors.computeIfAbsent(name, n -> new ManagedExecutor(config, moduleName, resources)).executor;
+		}
+	}
+
+
+	/**
+	 * @param name the name of the executor in the module properties
+	 * @return the executor
+	 * @throws IllegalArgumentException if there is no executor of type {@link ExecutorType#SCHEDULED} with this name
+	 * @throws IllegalStateException if the executors are shut down
+	 */
+	public ScheduledExecutorService getScheduledExecutor(final String name)
+	{
+		ExecutorService executor = getExecutor(name);
+		if (!(executor instanceof ScheduledExecutorService))
+		{
+			throw new IllegalArgumentException("Executor '" + name + "' of module " + moduleName + " is not of type "
+					+ ExecutorType.SCHEDULED);
+		}
+		return (ScheduledExecutorService) executor;
+	}
+
+
+	/**
+	 * @return the metrics of all executors that are currently running
+	 */
+	public List<ExecutorMetrics> getMetrics()
+	{
+		List<ExecutorMetrics> metrics = new ArrayList<>();
+		executors.values().forEach(e -> metrics.add(e.getMetrics()));
+		return metrics;
+	}
+
+
+	/**
+	 * Allow to create executors again after a {@link #shutdown(Duration)}.
+	 */
+	void open()
+	{
+		synchronized (executors)
+		{
+			closed = false;
+		}
+	}
+
+
+	/**
+	 * Shut down all executors and wait for the running tasks.
+	 * Executors that do not terminate within the timeout are interrupted.
+	 * No executors can be created until the executors are opened again.
+	 *
+	 * @param timeout the maximum time to wait for all executors
+	 */
+	void shutdown(final Duration timeout)
+	{
+		List<ManagedExecutor> running;
+		synchronized (executors)
+		{
+			closed = true;
+			running = new ArrayList<>(executors.values());
+			executors.clear();
+		}
+		running.forEach(e -> e.executor.shutdown());
+
+		long deadline = System.nanoTime() + timeout.toNanos();
+		for (ManagedExecutor managed : running)
+		{
+			try
+			{
+				if (!managed.executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+				{
+					log.warn("Executor " + managed.threadPrefix + " did not terminate within " + timeout
+							+ ", interrupting it");
+					managed.executor.shutdownNow();
+				}
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				managed.executor.shutdownNow();
+			}
+		}
+	}
+
+
+	private static final class ExecutorConfig
+	{
+		private final String name;
+		private final ExecutorType type;
+		private final int threads;
+
+
+		private ExecutorConfig(final String name, final ExecutorType type, final int threads)
+		{
+			this.name = name;
+			this.type = type;
+			this.threads = threads;
+		}
+	}
+
+	private static final class ManagedExecutor
+	{
+		private final ExecutorConfig config;
+		private final String threadPrefix;
+		private final ModuleResources resources;
+		private final long creationTime = System.nanoTime();
+		private final LongAdder busyNanos = new LongAdder();
+		private final ExecutorService executor;
+
+
+		private ManagedExecutor(final ExecutorConfig config, final String moduleName, final ModuleResources resources)
+		{
+			this.config = config;
+			this.resources = resources;
+			threadPrefix = moduleName + "-" + config.name + "-";
+			executor = createExecutor();
+		}
+
+
+		private ExecutorService createExecutor()
+		{
+			switch (config.type)
+			{
+				case SCHEDULED:
+					return new MeteredScheduledThreadPoolExecutor(this);
+				case FORK_JOIN:
+					return new ForkJoinPool(config.threads, this::newForkJoinThread, null, false);
+				case VIRTUAL:
+					ThreadFactory factory = VirtualThreadLifecycleExecutor.isAvailable()
+							? VirtualThreadLifecycleExecutor.newThreadFactory(threadPrefix)
+							: new PlatformThreadFactory(threadPrefix);
+					return new MeteredThreadPoolExecutor(this, 0, Integer.MAX_VALUE, new SynchronousQueue<>(),
+							resources.wrap(factory));
+				case FIXED:
+				case SINGLE:
+				default:
+					return new MeteredThreadPoolExecutor(this, config.threads, config.threads, new LinkedBlockingQueue<>(),
+							resources.wrap(new PlatformThreadFactory(threadPrefix)));
+			}
+		}
+
+
+		private ForkJoinWorkerThread newForkJoinThread(final ForkJoinPool pool)
+		{
+			ForkJoinWorkerThread thread = new ModuleForkJoinWorkerThread(pool, resources);
+			thread.setName(threadPrefix + thread.getPoolIndex());
+			return thread;
+		}
+
+
+		private ExecutorMetrics getMetrics()
+		{
+			if (executor instanceof ForkJoinPool)
+			{
+				ForkJoinPool pool = (ForkJoinPool) executor;
+				int active = pool.getActiveThreadCount();
+				return new ExecutorMetrics(config.name, config.type, config.threads, active,
+						pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(), -1,
+						(double) active / config.threads);
+			}
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+			// virtual executors may run more threads than configured
+			long threads = Math.max(config.threads, pool.getLargestPoolSize());
+			long available = (System.nanoTime() - creationTime) * threads;
+			return new ExecutorMetrics(config.name, config.type, config.threads, pool.getActiveCount(),
+					pool.getQueue().size(), pool.getCompletedTaskCount(),
+					available > 0 ? (double) busyNanos.sum() / available : 0);
+		}
+	}
+
+	private static final class MeteredThreadPoolExecutor extends ThreadPoolExecutor
+	{
+		private final ThreadLocal<long[]> taskStart = ThreadLocal.withInitial(() -> new long[1]);
+		private final LongAdder busyNanos;
+
+
+		private MeteredThreadPoolExecutor(final ManagedExecutor managed, final int coreThreads, final int maxThreads,
+				final BlockingQueue<Runnable> queue, final ThreadFactory threadFactory)
+		{
+			super(coreThreads, maxThreads, 0, TimeUnit.SECONDS, queue, threadFactory);
+			busyNanos = managed.busyNanos;
+		}
+
+
+		@Override
+		protected void beforeExecute(final Thread t, final Runnable r)
+		{
+			taskStart.get()[0] = System.nanoTime();
+		}
+
+
+		@Override
+		protected void afterExecute(final Runnable r, final Throwable t)
+		{
+			busyNanos.add(System.nanoTime() - taskStart.get()[0]);
+		}
+	}
+
+	private static final class MeteredScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor
+	{
+		private final ThreadLocal<long[]> taskStart = ThreadLocal.withInitial(() -> new long[1]);
+		private final LongAdder busyNanos;
+
+
+		private MeteredScheduledThreadPoolExecutor(final ManagedExecutor managed)
+		{
+			super(managed.config.threads, managed.resources.wrap(new PlatformThreadFactory(managed.threadPrefix)));
+			busyNanos = managed.busyNanos;
+		}
+
+
+		@Override
+		protected void beforeExecute(final Thread t, final Runnable r)
+		{
+			taskStart.get()[0] = System.nanoTime();
+		}
+
+
+		@Override
+		protected void afterExecute(final Runnable r, final Throwable t)
+		{
+			busyNanos.add(System.nanoTime() - taskStart.get()[0]);
+		}
+	}
+
+	private static final class ModuleForkJoinWorkerThread extends ForkJoinWorkerThread
+	{
+		private final ModuleResources resources;
+
+
+		private ModuleForkJoinWorkerThread(final ForkJoinPool pool, final ModuleResources resources)
+		{
+			super(pool);
+			this.resources = resources;
+		}
+
+
+		@Override
+		protected void onStart()
+		{
+			super.onStart();
+			resources.registerCurrentThread();
+		}
+
+
+		@Override
+		protected void onTermination(final Throwable exception)
+		{
+			resources.unregisterCurrentThread();
+			super.onTermination(exception);
+		}
+	}
+
+	private static final class PlatformThreadFactory implements ThreadFactory
+	{
+		private final String prefix;
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+
+		private PlatformThreadFactory(final String prefix)
+		{
+			this.prefix = prefix;
+		}
+
+
+		@Override
+		public Thread newThread(final Runnable r)
+		{
+			Thread thread = new Thread(r, prefix + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
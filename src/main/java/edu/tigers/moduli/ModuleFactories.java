@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+
+import edu.tigers.moduli.config.CompiledModuleConfig;
+import edu.tigers.moduli.config.ConfigNode;
+import edu.tigers.moduli.config.ModuleDescriptor;
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * The compile-time index of module factories, generated for classes annotated with
+ * {@link edu.tigers.moduli.annotation.Module}.
+ * Moduli uses it to resolve module classes and to create modules without class name lookups and reflection.
+ * Modules without a factory are still created reflectively.
+ */
+public final class ModuleFactories
+{
+	private final Map<String, IModuleFactory> factories = new LinkedHashMap<>();
+	private final Map<String, Class<? extends AModule>> classes = new HashMap<>();
+
+
+	private ModuleFactories(final Iterable<IModuleFactory> factories)
+	{
+		for (IModuleFactory factory : factories)
+		{
+			this.factories.put(factory.getImplementation().getName(), factory);
+			classes.put(factory.getImplementation().getName(), factory.getImplementation());
+			classes.put(factory.getId().getName(), factory.getId());
+			factory.getDependencies().forEach(d -> classes.put(d.getName(), d));
+		}
+	}
+
+
+	/**
+	 * @return the factories that are visible to the class loader of Moduli, loaded once
+	 */
+	public static ModuleFactories shared()
+	{
+		return SharedHolder.INSTANCE;
+	}
+
+
+	/**
+	 * @param classLoader the class loader to search for factories
+	 * @return the factories that are registered for the {@link ServiceLoader}
+	 */
+	public static ModuleFactories load(final ClassLoader classLoader)
+	{
+		return new ModuleFactories(ServiceLoader.load(IModuleFactory.class, classLoader));
+	}
+
+
+	/**
+	 * @param factories the factories
+	 * @return an index of the given factories
+	 */
+	public static ModuleFactories of(final Collection<IModuleFactory> factories)
+	{
+		return new ModuleFactories(factories);
+	}
+
+
+	/**
+	 * @param implementation the class name of a module implementation
+	 * @return the factory or null, if there is no factory for this implementation
+	 */
+	public IModuleFactory get(final String implementation)
+	{
+		return factories.get(implementation);
+	}
+
+
+	/**
+	 * @param className the class name of a module id or implementation
+	 * @return the class or null, if it is not known to any factory
+	 */
+	public Class<? extends AModule> findClass(final String className)
+	{
+		return classes.get(className);
+	}
+
+
+	/**
+	 * @return all factories
+	 */
+	public Collection<IModuleFactory> getFactories()
+	{
+		return Collections.unmodifiableCollection(factories.values());
+	}
+
+
+	/**
+	 * Create a module configuration with all indexed modules and their declared dependencies.
+	 *
+	 * @return the compiled configuration
+	 * @throws LoadModulesException if two modules have the same id
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public CompiledModuleConfig compile() throws LoadModulesException, DependencyException
+	{
+		ConfigurationNode root = new HierarchicalConfiguration.Node("moduli");
+		root.addChild(new HierarchicalConfiguration.Node("globalConfiguration"));
+		List<ModuleDescriptor> modules = new ArrayList<>();
+		for (IModuleFactory factory : factories.values())
+		{
+			modules.add(new ModuleDescriptor(
+					factory.getId().getName(),
+					factory.getImplementation().getName(),
+					factory.getDependencies().stream().map(Class::getName).collect(Collectors.toList()),
+					null,
+					false));
+		}
+		return CompiledModuleConfig.of(ConfigNode.of(root), modules);
+	}
+
+
+	private static final class SharedHolder
+	{
+		private static final ModuleFactories INSTANCE = load(Moduli.class.getClassLoader());
+	}
+}
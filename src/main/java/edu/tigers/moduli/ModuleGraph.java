@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import edu.tigers.moduli.config.DependencyGraph;
+
+
+/**
+ * An immutable view of the dependency graph of the loaded modules for analysis and scheduling.
+ * Modules are identified by their id. A module and its dependencies form an edge from the module to the dependency.
+ */
+public final class ModuleGraph
+{
+	private final List<Class<? extends AModule>> modules;
+	private final Map<Class<? extends AModule>, Integer> indices = new HashMap<>();
+	private final DependencyGraph graph;
+
+
+	private ModuleGraph(final List<AModule> orderedModules)
+	{
+		modules = new ArrayList<>(orderedModules.size());
+		for (AModule module : orderedModules)
+		{
+			indices.put(module.getId(), modules.size());
+			modules.add(module.getId());
+		}
+
+		DependencyGraph.Builder builder = DependencyGraph.builder(modules.size());
+		for (int i = 0; i < orderedModules.size(); i++)
+		{
+			for (Class<? extends AModule> dependency : orderedModules.get(i).getDependencies())
+			{
+				Integer d = indices.get(dependency);
+				if (d != null)
+				{
+					builder.addEdge(i, d);
+				}
+			}
+		}
+		graph = builder.build();
+	}
+
+
+	/**
+	 * @param orderedModules the modules, each after its dependencies
+	 * @return the graph of the modules, dependencies outside of the given modules are ignored
+	 */
+	static ModuleGraph create(final List<AModule> orderedModules)
+	{
+		return new ModuleGraph(orderedModules);
+	}
+
+
+	/**
+	 * @return the ids of all modules, each after its dependencies
+	 */
+	public List<Class<? extends AModule>> getModules()
+	{
+		return Collections.unmodifiableList(modules);
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the ids of the direct dependencies of the module
+	 */
+	public List<Class<? extends AModule>> getDependencies(final Class<? extends AModule> moduleId)
+	{
+		return toIds(graph.getDependencies(indexOf(moduleId)));
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the ids of the modules that depend directly on the module
+	 */
+	public List<Class<? extends AModule>> getDependents(final Class<? extends AModule> moduleId)
+	{
+		return toIds(graph.getDependents(indexOf(moduleId)));
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the ids of all modules that depend directly or indirectly on the module, in startup order
+	 */
+	public List<Class<? extends AModule>> getTransitiveDependents(final Class<? extends AModule> moduleId)
+	{
+		return toIds(graph.getTransitiveDependents(indexOf(moduleId)));
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the ids of all modules that the module depends on directly or indirectly, in startup order
+	 */
+	public List<Class<? extends AModule>> getTransitiveDependencies(final Class<? extends AModule> moduleId)
+	{
+		return toIds(graph.getTransitiveDependencies(indexOf(moduleId)));
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the length of the longest dependency chain below the module, 0 for modules without dependencies
+	 */
+	public int getLevel(final Class<? extends AModule> moduleId)
+	{
+		return graph.getLevel(indexOf(moduleId));
+	}
+
+
+	/**
+	 * The level sets group the modules by {@link #getLevel(Class)}. All modules of a level only depend on modules
+	 * of lower levels, so they can be started in parallel once the lower levels are started.
+	 *
+	 * @return the ids of the modules per level, starting with level 0
+	 */
+	public List<List<Class<? extends AModule>>> getLevelSets()
+	{
+		List<List<Class<? extends AModule>>> levelSets = new ArrayList<>();
+		for (int[] levelSet : graph.getLevelSets())
+		{
+			levelSets.add(toIds(levelSet));
+		}
+		return levelSets;
+	}
+
+
+	/**
+	 * The critical path is the chain of dependent modules with the highest summed weight.
+	 * With the times of one lifecycle phase as weights, it is the shortest duration of that phase,
+	 * if independent modules run the phase in parallel.
+	 *
+	 * @param weight the weight of a module, for example its measured init time in nanoseconds
+	 * @return the ids of the modules on the critical path, each after its dependency
+	 */
+	public List<Class<? extends AModule>> getCriticalPath(final ToLongFunction<Class<? extends AModule>> weight)
+	{
+		long[] finish = new long[modules.size()];
+		int[] predecessor = new int[modules.size()];
+		int last = -1;
+		for (int i = 0; i < modules.size(); i++)
+		{
+			long start = 0;
+			predecessor[i] = -1;
+			for (int j = 0; j < graph.getDependencyCount(i); j++)
+			{
+				int d = graph.getDependency(i, j);
+				if (predecessor[i] < 0 || finish[d] > start)
+				{
+					start = finish[d];
+					predecessor[i] = d;
+				}
+			}
+			finish[i] = start + weight.applyAsLong(modules.get(i));
+			if (last < 0 || finish[i] >= finish[last])
+			{
+				last = i;
+			}
+		}
+
+		List<Class<? extends AModule>> criticalPath = new ArrayList<>();
+		for (int i = last; i >= 0; i = predecessor[i])
+		{
+			criticalPath.add(0, modules.get(i));
+		}
+		return criticalPath;
+	}
+
+
+	/**
+	 * The nodes are identified by the fully qualified module ids, so that modules with the same simple name
+	 * in different packages stay apart, and labeled with the simple names.
+	 *
+	 * @return the graph in the Graphviz DOT format, with an edge from each module to its dependencies
+	 */
+	public String toDot()
+	{
+		StringBuilder sb = new StringBuilder("digraph modules {\n");
+		for (int i = 0; i < modules.size(); i++)
+		{
+			sb.append("  \"").append(modules.get(i).getName()).append("\" [label=\"")
+					.append(modules.get(i).getSimpleName()).append("\"];\n");
+			for (int d : graph.getDependencies(i))
+			{
+				sb.append("  \"").append(modules.get(i).getName()).append("\" -> \"")
+						.append(modules.get(d).getName()).append("\";\n");
+			}
+		}
+		return sb.append("}\n").toString();
+	}
+
+
+	/**
+	 * @return the graph as JSON, with the id, level and dependencies of each module in startup order.
+	 *         The ids are the class names of the modules.
+	 */
+	public String toJson()
+	{
+		StringBuilder sb = new StringBuilder("{\"modules\":[");
+		for (int i = 0; i < modules.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(',');
+			}
+			sb.append("{\"id\":").append(quoteJson(modules.get(i).getName()))
+					.append(",\"level\":").append(graph.getLevel(i))
+					.append(",\"dependencies\":[");
+			for (int j = 0; j < graph.getDependencyCount(i); j++)
+			{
+				if (j > 0)
+				{
+					sb.append(',');
+				}
+				sb.append(quoteJson(modules.get(graph.getDependency(i, j)).getName()));
+			}
+			sb.append("]}");
+		}
+		return sb.append("]}").toString();
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return toDot();
+	}
+
+
+	/**
+	 * @param value any string
+	 * @return the string as JSON string literal, with quotes, backslashes and control characters escaped
+	 */
+	static String quoteJson(final String value)
+	{
+		StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\')
+			{
+				sb.append('\\').append(c);
+			} else if (c < 0x20)
+			{
+				sb.append(String.format("\\u%04x", (int) c));
+			} else
+			{
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+
+	private int indexOf(final Class<? extends AModule> moduleId)
+	{
+		Integer index = indices.get(moduleId);
+		if (index == null)
+		{
+			throw new IllegalArgumentException("Module " + moduleId.getName() + " is not part of the graph");
+		}
+		return index;
+	}
+
+
+	private List<Class<? extends AModule>> toIds(final int[] moduleIndices)
+	{
+		List<Class<? extends AModule>> ids = new ArrayList<>(moduleIndices.length);
+		for (int i : moduleIndices)
+		{
+			ids.add(modules.get(i));
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.function.Function;
+
+import edu.tigers.moduli.exceptions.ModuleNotFoundException;
+
+
+/**
+ * A typed reference to a module that can be resolved once and used on hot paths.
+ * Accessing the module is a single field read without any allocation.
+ * The handle is re-bound by {@link Moduli} whenever the modules are (re-)loaded.
+ * If the handle is not bound, the module is looked up in {@link Moduli}, which creates lazy modules on demand.
+ *
+ * @param <T> the type of the module
+ */
+public final class ModuleHandle<T extends AModule>
+{
+	private final Class<T> moduleId;
+	private final Function<Class<T>, T> resolver;
+	private volatile T module;
+
+
+	ModuleHandle(final Class<T> moduleId, final Function<Class<T>, T> resolver)
+	{
+		this.moduleId = moduleId;
+		this.resolver = resolver;
+	}
+
+
+	/**
+	 * @return the module instance
+	 * @throws ModuleNotFoundException if the module is not loaded
+	 */
+	public T get()
+	{
+		final T m = module;
+		if (m == null)
+		{
+			return resolver.apply(moduleId);
+		}
+		return m;
+	}
+
+
+	/**
+	 * @return the module instance or null, if the module is not loaded or a lazy module that was not created yet
+	 */
+	public T getOrNull()
+	{
+		return module;
+	}
+
+
+	/**
+	 * @return true, if the module is currently loaded and created
+	 */
+	public boolean isBound()
+	{
+		return module != null;
+	}
+
+
+	/**
+	 * @return the module id or implementation class this handle was resolved for
+	 */
+	public Class<T> getModuleId()
+	{
+		return moduleId;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	void bind(final AModule module)
+	{
+		this.module = (T) module;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "ModuleHandle[" + moduleId.getSimpleName() + "]";
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+
+import edu.tigers.moduli.LatencyHistogram.LatencySnapshot;
+import edu.tigers.moduli.listenerVariables.HealthStatus;
+
+
+/**
+ * The health of a single module: its heartbeats, the latency between them and the status determined by the
+ * watchdog of Moduli. The heartbeat deadline can be configured in the module properties in milliseconds:
+ *
+ * <pre>
+ * &lt;properties&gt;
+ *     &lt;watchdog deadline="500"/&gt;
+ * &lt;/properties&gt;
+ * </pre>
+ *
+ * Without a deadline, the module is never considered stalled, but its health check is still called.
+ */
+public final class ModuleHealth
+{
+	/** the element of the module properties that configures the heartbeat deadline */
+	public static final String CONFIG_ELEMENT = "watchdog";
+	private final AtomicLong lastHeartbeat = new AtomicLong(System.nanoTime());
+	private volatile LatencyHistogram latency;
+	private volatile Duration deadline;
+	private volatile HealthStatus status = HealthStatus.UNKNOWN;
+
+
+	void configure(final HierarchicalConfiguration moduleConfig)
+	{
+		long deadlineMillis = moduleConfig.getLong(CONFIG_ELEMENT + "[@deadline]", 0);
+		deadline = deadlineMillis > 0 ? Duration.ofMillis(deadlineMillis) : null;
+	}
+
+
+	/**
+	 * Signal that the module made progress, typically once per processing cycle.
+	 * The time since the previous heartbeat is recorded as cycle latency.
+	 */
+	public void heartbeat()
+	{
+		long now = System.nanoTime();
+		getHistogram().record(now - lastHeartbeat.getAndSet(now));
+	}
+
+
+	private LatencyHistogram getHistogram()
+	{
+		LatencyHistogram histogram = latency;
+		if (histogram == null)
+		{
+			synchronized (this)
+			{
+				histogram = latency;
+				if (histogram == null)
+				{
+					histogram = new LatencyHistogram();
+					latency = histogram;
+				}
+			}
+		}
+		return histogram;
+	}
+
+
+	/**
+	 * Restart the deadline, called when the module is started.
+	 */
+	void reset()
+	{
+		lastHeartbeat.set(System.nanoTime());
+		status = HealthStatus.UNKNOWN;
+	}
+
+
+	/**
+	 * @param nanoTime the current {@link System#nanoTime()}
+	 * @return true, if the deadline is configured and exceeded
+	 */
+	boolean isStalled(final long nanoTime)
+	{
+		Duration currentDeadline = deadline;
+		return currentDeadline != null && nanoTime - lastHeartbeat.get() > currentDeadline.toNanos();
+	}
+
+
+	/**
+	 * @param newStatus the new status
+	 * @return the previous status
+	 */
+	HealthStatus setStatus(final HealthStatus newStatus)
+	{
+		HealthStatus oldStatus = status;
+		status = newStatus;
+		return oldStatus;
+	}
+
+
+	/**
+	 * @return the status determined by the last check of the watchdog
+	 */
+	public HealthStatus getStatus()
+	{
+		return status;
+	}
+
+
+	/**
+	 * @return the maximum time between two heartbeats or null, if the module can not stall
+	 */
+	public Duration getDeadline()
+	{
+		return deadline;
+	}
+
+
+	/**
+	 * @param deadline the maximum time between two heartbeats or null, if the module can not stall
+	 */
+	public void setDeadline(final Duration deadline)
+	{
+		this.deadline = deadline;
+	}
+
+
+	/**
+	 * @return the time since the last heartbeat, or since the start, if there was no heartbeat yet
+	 */
+	public Duration getTimeSinceHeartbeat()
+	{
+		return Duration.ofNanos(System.nanoTime() - lastHeartbeat.get());
+	}
+
+
+	/**
+	 * @return the distribution of the time between heartbeats
+	 */
+	public LatencySnapshot getLatency()
+	{
+		return getHistogram().getSnapshot();
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return status + " " + (latency == null ? "no heartbeats" : getLatency().toString());
+	}
+}
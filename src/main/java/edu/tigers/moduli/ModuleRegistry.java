@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * An immutable snapshot of the loaded modules.
+ * Moduli builds a new snapshot for each change and publishes it with a single volatile write,
+ * so that readers never lock and never see a partially loaded set of modules.
+ */
+final class ModuleRegistry
+{
+	/** the registry without any modules */
+	static final ModuleRegistry EMPTY = new ModuleRegistry(Collections.emptyList());
+
+	private final List<AModule> modules;
+	private final Map<Class<?>, AModule> index = new HashMap<>();
+	/** built on first use, since registries of lazily added modules are replaced before anyone needs the graph */
+	private volatile ModuleGraph graph;
+
+
+	private ModuleRegistry(final List<AModule> orderedModules)
+	{
+		modules = Collections.unmodifiableList(new ArrayList<>(orderedModules));
+		// ids take precedence over implementation classes
+		for (AModule module : modules)
+		{
+			index.put(module.getId(), module);
+		}
+		for (AModule module : modules)
+		{
+			index.putIfAbsent(module.getClass(), module);
+		}
+	}
+
+
+	/**
+	 * @param orderedModules the modules, each after its dependencies
+	 * @return a registry with the given modules
+	 */
+	static ModuleRegistry of(final List<AModule> orderedModules)
+	{
+		return orderedModules.isEmpty() ? EMPTY : new ModuleRegistry(orderedModules);
+	}
+
+
+	/**
+	 * @param module a module whose dependencies are already part of this registry
+	 * @return a new registry with all modules of this registry and the given module
+	 */
+	ModuleRegistry withModule(final AModule module)
+	{
+		List<AModule> newModules = new ArrayList<>(modules.size() + 1);
+		newModules.addAll(modules);
+		newModules.add(module);
+		return new ModuleRegistry(newModules);
+	}
+
+
+	/**
+	 * @return all modules, each after its dependencies
+	 */
+	List<AModule> getModules()
+	{
+		return modules;
+	}
+
+
+	/**
+	 * @param moduleId the module id or implementation class
+	 * @return the module or null, if there is no such module
+	 */
+	AModule get(final Class<?> moduleId)
+	{
+		return index.get(moduleId);
+	}
+
+
+	/**
+	 * @param moduleId the module id
+	 * @return the module with exactly this id or null, if there is no such module
+	 */
+	AModule getById(final Class<? extends AModule> moduleId)
+	{
+		AModule module = index.get(moduleId);
+		return module != null && module.getId() == moduleId ? module : null;
+	}
+
+
+	/**
+	 * @param moduleId the module id or implementation class
+	 * @return true, if there is a module with this id or implementation
+	 */
+	boolean contains(final Class<?> moduleId)
+	{
+		return index.containsKey(moduleId);
+	}
+
+
+	/**
+	 * @return the dependency graph of the modules
+	 */
+	ModuleGraph getGraph()
+	{
+		ModuleGraph result = graph;
+		if (result == null)
+		{
+			// the graph is immutable, so concurrent readers may build it twice, but never see it partially
+			result = ModuleGraph.create(modules);
+			graph = result;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * Accounts the CPU time and heap allocations of the threads that belong to a module.
+ * Threads of the executors of {@link ModuleExecutors} are registered automatically while they run.
+ * Threads that a module creates itself can be registered with {@link #wrap(ThreadFactory)}
+ * or {@link #registerCurrentThread()}.
+ * <p>
+ * The counters of the registered threads are read in one bulk call per module when Moduli samples the resources,
+ * so the overhead is bounded by the sampling interval and does not depend on the work of the threads.
+ * Threads that terminate while registered lose at most the usage since the last sample;
+ * threads that unregister themselves are accounted exactly.
+ * Virtual threads are not supported by the JVM and are ignored.
+ * If the JVM can not measure other threads at all, see {@link #isSupported()}, the usage values are -1.
+ */
+public final class ModuleResources
+{
+	private static final boolean SUPPORTED = checkSupported();
+	private static final int START_CPU = 0;
+	private static final int START_ALLOCATED = 1;
+	private static final int LAST_CPU = 2;
+	private static final int LAST_ALLOCATED = 3;
+
+	/** the counters of each registered thread at its registration and at the last sample */
+	private final Map<Long, long[]> threads = new HashMap<>();
+	private long retiredCpuNanos;
+	private long retiredAllocatedBytes;
+	private long lastSampleTime = System.nanoTime();
+	private long lastCpuNanos;
+	private long lastAllocatedBytes;
+	private volatile ResourceUsage usage = SUPPORTED ? ResourceUsage.NONE : ResourceUsage.UNSUPPORTED;
+
+
+	private static boolean checkSupported()
+	{
+		try
+		{
+			return ThreadCounters.isSupported();
+		} catch (LinkageError e)
+		{
+			// the module jdk.management is not available
+			return false;
+		}
+	}
+
+
+	/**
+	 * @return true, if the JVM can measure the CPU time and allocations of other threads
+	 */
+	public static boolean isSupported()
+	{
+		return SUPPORTED;
+	}
+
+
+	/**
+	 * @param factory a thread factory
+	 * @return a thread factory whose threads are registered for this module while they run
+	 */
+	public ThreadFactory wrap(final ThreadFactory factory)
+	{
+		return r -> factory.newThread(() -> {
+			registerCurrentThread();
+			try
+			{
+				r.run();
+			} finally
+			{
+				unregisterCurrentThread();
+			}
+		});
+	}
+
+
+	/**
+	 * Account the usage of the current thread to this module from now on.
+	 * The thread should not be shared with other modules.
+	 */
+	public void registerCurrentThread()
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+		long id = Thread.currentThread().getId();
+		long cpu = ThreadCounters.getCpuTime(id);
+		long allocated = ThreadCounters.getAllocatedBytes(id);
+		if (cpu < 0 || allocated < 0)
+		{
+			// virtual threads or disabled measurement
+			return;
+		}
+		synchronized (this)
+		{
+			threads.putIfAbsent(id, new long[] { cpu, allocated, cpu, allocated });
+		}
+	}
+
+
+	/**
+	 * Stop accounting the current thread and keep its usage until now.
+	 */
+	public void unregisterCurrentThread()
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+		long id = Thread.currentThread().getId();
+		long cpu = ThreadCounters.getCpuTime(id);
+		long allocated = ThreadCounters.getAllocatedBytes(id);
+		synchronized (this)
+		{
+			long[] counters = threads.remove(id);
+			if (counters != null)
+			{
+				retire(counters, cpu, allocated);
+			}
+		}
+	}
+
+
+	/**
+	 * Read the counters of all registered threads. Terminated threads are unregistered.
+	 *
+	 * @return the new usage
+	 */
+	synchronized ResourceUsage sample()
+	{
+		if (!SUPPORTED)
+		{
+			return usage;
+		}
+		long[] ids = new long[threads.size()];
+		int i = 0;
+		for (Long id : threads.keySet())
+		{
+			ids[i++] = id;
+		}
+		long[] cpu = ids.length == 0 ? ids : ThreadCounters.getCpuTime(ids);
+		long[] allocated = ids.length == 0 ? ids : ThreadCounters.getAllocatedBytes(ids);
+
+		long liveCpuNanos = 0;
+		long liveAllocatedBytes = 0;
+		for (i = 0; i < ids.length; i++)
+		{
+			long[] counters = threads.get(ids[i]);
+			if (cpu[i] < 0 || allocated[i] < 0)
+			{
+				threads.remove(ids[i]);
+				retire(counters, counters[LAST_CPU], counters[LAST_ALLOCATED]);
+				continue;
+			}
+			counters[LAST_CPU] = cpu[i];
+			counters[LAST_ALLOCATED] = allocated[i];
+			liveCpuNanos += cpu[i] - counters[START_CPU];
+			liveAllocatedBytes += allocated[i] - counters[START_ALLOCATED];
+		}
+
+		long now = System.nanoTime();
+		long cpuNanos = retiredCpuNanos + liveCpuNanos;
+		long allocatedBytes = retiredAllocatedBytes + liveAllocatedBytes;
+		double elapsed = Math.max(1, now - lastSampleTime);
+		usage = new ResourceUsage(threads.size(), cpuNanos, allocatedBytes, (cpuNanos - lastCpuNanos) / elapsed,
+				(allocatedBytes - lastAllocatedBytes) / elapsed * 1e9);
+		lastSampleTime = now;
+		lastCpuNanos = cpuNanos;
+		lastAllocatedBytes = allocatedBytes;
+		return usage;
+	}
+
+
+	/**
+	 * @param counters the counters at registration and at the last sample
+	 * @param cpu the last known CPU time of the thread
+	 * @param allocated the last known allocated bytes of the thread
+	 */
+	private void retire(final long[] counters, final long cpu, final long allocated)
+	{
+		retiredCpuNanos += Math.max(0, cpu - counters[START_CPU]);
+		retiredAllocatedBytes += Math.max(0, allocated - counters[START_ALLOCATED]);
+	}
+
+
+	/**
+	 * @return the usage at the last sample
+	 */
+	public ResourceUsage getUsage()
+	{
+		return usage;
+	}
+
+
+	/**
+	 * @return the number of currently registered threads
+	 */
+	public synchronized int getThreadCount()
+	{
+		return threads.size();
+	}
+}
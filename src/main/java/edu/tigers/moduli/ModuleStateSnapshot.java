@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.tigers.moduli.config.ConfigNode;
+
+
+/**
+ * The module states that were captured with {@link AModule#snapshotState()} when the modules were stopped.
+ * They are stored in a memory-mapped file with a compact binary format:
+ *
+ * <pre>
+ * int magic, int format version, int number of entries
+ * per entry: short id length, id (UTF-8), long class fingerprint, long config hash, int state length, state
+ * </pre>
+ *
+ * A state is only restored into a module with the same id, the same class fingerprint and the same config hash.
+ * The class fingerprint covers the name and the instance fields of the module implementation,
+ * the config hash covers the module properties.
+ */
+final class ModuleStateSnapshot
+{
+	static final ModuleStateSnapshot EMPTY = new ModuleStateSnapshot(Collections.emptyMap());
+
+	private static final Logger log = LogManager.getLogger(ModuleStateSnapshot.class.getName());
+	private static final int MAGIC = 0x4D534E50;
+	private static final int FORMAT_VERSION = 1;
+	private static final int HEADER_BYTES = 3 * Integer.BYTES;
+	private static final int ENTRY_BYTES = Short.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+	private final Map<String, Entry> entries;
+
+
+	private ModuleStateSnapshot(final Map<String, Entry> entries)
+	{
+		this.entries = entries;
+	}
+
+
+	/**
+	 * @param entries captured states
+	 * @return a snapshot of the entries
+	 */
+	static ModuleStateSnapshot of(final Collection<Entry> entries)
+	{
+		Map<String, Entry> byId = new HashMap<>();
+		entries.forEach(e -> byId.put(e.id, e));
+		return new ModuleStateSnapshot(byId);
+	}
+
+
+	/**
+	 * Capture the state of a stopped module.
+	 *
+	 * @param module the module
+	 * @param properties the properties of the module in the config or null
+	 * @return the entry or null, if the module has no state
+	 */
+	static Entry capture(final AModule module, final ConfigNode properties)
+	{
+		ByteBuffer state = module.snapshotState();
+		if (state == null)
+		{
+			return null;
+		}
+		// copy the state, the module may reuse its buffer before the snapshot is written
+		ByteBuffer copy = ByteBuffer.allocate(state.remaining());
+		copy.put(state.duplicate());
+		copy.flip();
+		return new Entry(module.getId().getName(), classFingerprint(module.getClass()), configHash(properties),
+				copy.asReadOnlyBuffer());
+	}
+
+
+	/**
+	 * @param module the module to restore
+	 * @param properties the properties of the module in the config or null
+	 * @return the state of the module, if it was captured by the same class with the same properties, or null
+	 */
+	ByteBuffer getState(final AModule module, final ConfigNode properties)
+	{
+		Entry entry = entries.get(module.getId().getName());
+		if (entry == null)
+		{
+			return null;
+		}
+		if (entry.classFingerprint != classFingerprint(module.getClass()))
+		{
+			log.info("Not restoring state of module " + module + ": the module class changed");
+			return null;
+		} else if (entry.configHash != configHash(properties))
+		{
+			log.info("Not restoring state of module " + module + ": the module configuration changed");
+			return null;
+		}
+		return entry.state.duplicate();
+	}
+
+
+	/**
+	 * @return the number of captured states
+	 */
+	int size()
+	{
+		return entries.size();
+	}
+
+
+	/**
+	 * @return the captured states, in no particular order
+	 */
+	Collection<Entry> getEntries()
+	{
+		return entries.values();
+	}
+
+
+	/**
+	 * Write the entries to a file. The file is written to a temporary file first and then moved,
+	 * so that an existing snapshot is never left half written.
+	 *
+	 * @param file the snapshot file
+	 * @param entries the entries in the order to write
+	 * @throws IOException if the file can not be written
+	 */
+	static void write(final Path file, final List<Entry> entries) throws IOException
+	{
+		long size = HEADER_BYTES;
+		for (Entry entry : entries)
+		{
+			size += ENTRY_BYTES + entry.id.getBytes(StandardCharsets.UTF_8).length + entry.state.remaining();
+		}
+
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path tmpFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC);
+			buffer.putInt(FORMAT_VERSION);
+			buffer.putInt(entries.size());
+			for (Entry entry : entries)
+			{
+				byte[] id = entry.id.getBytes(StandardCharsets.UTF_8);
+				buffer.putShort((short) id.length);
+				buffer.put(id);
+				buffer.putLong(entry.classFingerprint);
+				buffer.putLong(entry.configHash);
+				buffer.putInt(entry.state.remaining());
+				buffer.put(entry.state.duplicate());
+			}
+			buffer.force();
+		}
+		try
+		{
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+
+	/**
+	 * Map a snapshot file. The states are not copied, but read from the mapped file.
+	 *
+	 * @param file the snapshot file
+	 * @return the snapshot, or an empty snapshot if the file does not exist or is invalid
+	 */
+	static ModuleStateSnapshot read(final Path file)
+	{
+		if (!Files.isRegularFile(file))
+		{
+			return EMPTY;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+			{
+				log.warn("Ignoring module state snapshot " + file + " with unknown format");
+				return EMPTY;
+			}
+			int numEntries = buffer.getInt();
+			Map<String, Entry> entries = new HashMap<>();
+			for (int i = 0; i < numEntries; i++)
+			{
+				byte[] id = new byte[Short.toUnsignedInt(buffer.getShort())];
+				buffer.get(id);
+				long classFingerprint = buffer.getLong();
+				long configHash = buffer.getLong();
+				int length = buffer.getInt();
+				ByteBuffer state = buffer.slice();
+				state.limit(length);
+				buffer.position(buffer.position() + length);
+				String moduleId = new String(id, StandardCharsets.UTF_8);
+				entries.put(moduleId, new Entry(moduleId, classFingerprint, configHash, state.asReadOnlyBuffer()));
+			}
+			return new ModuleStateSnapshot(entries);
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException e)
+		{
+			log.warn("Ignoring invalid module state snapshot " + file, e);
+			return EMPTY;
+		}
+	}
+
+
+	/**
+	 * @param moduleClass the implementation of a module
+	 * @return a fingerprint of the name and the instance fields of the class and its superclasses up to
+	 *         {@link AModule}
+	 */
+	static long classFingerprint(final Class<?> moduleClass)
+	{
+		StringBuilder sb = new StringBuilder(moduleClass.getName());
+		for (Class<?> c = moduleClass; c != null && c != AModule.class; c = c.getSuperclass())
+		{
+			Field[] fields = c.getDeclaredFields();
+			Arrays.sort(fields, Comparator.comparing(Field::getName));
+			sb.append(';').append(c.getName());
+			for (Field field : fields)
+			{
+				if (!Modifier.isStatic(field.getModifiers()))
+				{
+					sb.append(',').append(field.getName()).append(':').append(field.getType().getName());
+				}
+			}
+		}
+		return digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+
+	/**
+	 * @param properties the module properties or null
+	 * @return a hash of the properties
+	 */
+	static long configHash(final ConfigNode properties)
+	{
+		if (properties == null)
+		{
+			return 0;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes))
+		{
+			properties.write(out);
+		} catch (IOException e)
+		{
+			throw new IllegalStateException("Could not serialize module properties", e);
+		}
+		return digest(bytes.toByteArray());
+	}
+
+
+	private static long digest(final byte[] content)
+	{
+		try
+		{
+			return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(content)).getLong();
+		} catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+
+	/**
+	 * The captured state of one module.
+	 */
+	static final class Entry
+	{
+		private final String id;
+		private final long classFingerprint;
+		private final long configHash;
+		private final ByteBuffer state;
+
+
+		private Entry(final String id, final long classFingerprint, final long configHash, final ByteBuffer state)
+		{
+			this.id = id;
+			this.classFingerprint = classFingerprint;
+			this.configHash = configHash;
+			this.state = state;
+		}
+
+
+		/**
+		 * @return the id of the module
+		 */
+		String getId()
+		{
+			return id;
+		}
+	}
+}
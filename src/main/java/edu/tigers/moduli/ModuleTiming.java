@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * The measured wall-clock and CPU time of each lifecycle phase of a single module.
+ * Times are in nanoseconds, unmeasured phases have a value of -1.
+ */
+public class ModuleTiming
+{
+	private static final int NUM_PHASES = LifecyclePhase.values().length;
+
+	private final Class<? extends AModule> moduleId;
+	private final AtomicLongArray wallNanos = new AtomicLongArray(NUM_PHASES);
+	private final AtomicLongArray cpuNanos = new AtomicLongArray(NUM_PHASES);
+
+
+	ModuleTiming(final Class<? extends AModule> moduleId)
+	{
+		this.moduleId = moduleId;
+		for (int i = 0; i < NUM_PHASES; i++)
+		{
+			wallNanos.set(i, -1);
+			cpuNanos.set(i, -1);
+		}
+	}
+
+
+	void record(final LifecyclePhase phase, final long wall, final long cpu)
+	{
+		wallNanos.set(phase.ordinal(), wall);
+		cpuNanos.set(phase.ordinal(), cpu);
+	}
+
+
+	ModuleTiming copy()
+	{
+		ModuleTiming copy = new ModuleTiming(moduleId);
+		for (int i = 0; i < NUM_PHASES; i++)
+		{
+			copy.wallNanos.set(i, wallNanos.get(i));
+			copy.cpuNanos.set(i, cpuNanos.get(i));
+		}
+		return copy;
+	}
+
+
+	/**
+	 * @return the id of the module
+	 */
+	public Class<? extends AModule> getModuleId()
+	{
+		return moduleId;
+	}
+
+
+	/**
+	 * @param phase the lifecycle phase
+	 * @return the wall-clock time of the phase in nanoseconds or -1, if the phase was not measured
+	 */
+	public long getWallNanos(final LifecyclePhase phase)
+	{
+		return wallNanos.get(phase.ordinal());
+	}
+
+
+	/**
+	 * @param phase the lifecycle phase
+	 * @return the CPU time of the phase in nanoseconds or -1, if the phase was not measured
+	 *         or the JVM does not support measuring the CPU time
+	 */
+	public long getCpuNanos(final LifecyclePhase phase)
+	{
+		return cpuNanos.get(phase.ordinal());
+	}
+
+
+	/**
+	 * @return the summed wall-clock time of construction, initialization and start
+	 */
+	public Duration getStartupWallTime()
+	{
+		return Duration.ofNanos(sum(wallNanos, LifecyclePhase.CONSTRUCT, LifecyclePhase.INIT, LifecyclePhase.START));
+	}
+
+
+	/**
+	 * @return the summed wall-clock time of stop and deinitialization
+	 */
+	public Duration getShutdownWallTime()
+	{
+		return Duration.ofNanos(sum(wallNanos, LifecyclePhase.STOP, LifecyclePhase.DEINIT));
+	}
+
+
+	private static long sum(final AtomicLongArray values, final LifecyclePhase... phases)
+	{
+		long sum = 0;
+		for (LifecyclePhase phase : phases)
+		{
+			sum += Math.max(0, values.get(phase.ordinal()));
+		}
+		return sum;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder(moduleId.getSimpleName());
+		for (LifecyclePhase phase : LifecyclePhase.values())
+		{
+			sb.append(' ').append(phase.name().toLowerCase()).append('=').append(toMillis(getWallNanos(phase)))
+					.append("ms/").append(toMillis(getCpuNanos(phase))).append("ms");
+		}
+		return sb.toString();
+	}
+
+
+	private static String toMillis(final long nanos)
+	{
+		return nanos < 0 ? "-" : String.format("%.3f", nanos / 1e6);
+	}
+}
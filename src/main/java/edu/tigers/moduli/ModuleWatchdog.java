@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.tigers.moduli.listenerVariables.HealthStatus;
+import edu.tigers.moduli.listenerVariables.IModuleHealthObserver;
+import edu.tigers.moduli.listenerVariables.ModuleState;
+
+
+/**
+ * Periodically checks the health of all started modules on a single daemon thread.
+ * A module is stalled, if it missed its heartbeat deadline, and unhealthy, if {@link AModule#checkHealth()}
+ * returned false or threw an exception.
+ */
+final class ModuleWatchdog
+{
+	private static final Logger log = LogManager.getLogger(ModuleWatchdog.class.getName());
+
+	private final Supplier<List<AModule>> modules;
+	private final List<IModuleHealthObserver> observers = new CopyOnWriteArrayList<>();
+	private final Object checkLock = new Object();
+	private final PeriodicTask task = new PeriodicTask("Moduli-watchdog", this::check);
+
+
+	/**
+	 * @param modules supplies the current modules
+	 */
+	ModuleWatchdog(final Supplier<List<AModule>> modules)
+	{
+		this.modules = modules;
+	}
+
+
+	/**
+	 * Start checking periodically. A running watchdog is restarted with the new interval.
+	 *
+	 * @param interval the time between two checks, zero or negative to only stop the watchdog
+	 */
+	void start(final Duration interval)
+	{
+		task.start(interval);
+	}
+
+
+	/**
+	 * Stop checking. The health status of the modules is kept.
+	 */
+	void stop()
+	{
+		task.stop();
+	}
+
+
+	/**
+	 * @return true, if the watchdog checks periodically
+	 */
+	boolean isRunning()
+	{
+		return task.isRunning();
+	}
+
+
+	/**
+	 * Check all started modules once.
+	 *
+	 * @return the status of each started module
+	 */
+	Map<Class<? extends AModule>, HealthStatus> check()
+	{
+		Map<Class<? extends AModule>, HealthStatus> result = new LinkedHashMap<>();
+		synchronized (checkLock)
+		{
+			long now = System.nanoTime();
+			for (AModule module : modules.get())
+			{
+				if (module.getState() != ModuleState.STARTED)
+				{
+					continue;
+				}
+				HealthStatus newStatus = checkModule(module, now);
+				HealthStatus oldStatus = module.getHealth().setStatus(newStatus);
+				if (oldStatus != newStatus)
+				{
+					onStatusChanged(module, oldStatus, newStatus);
+				}
+				result.put(module.getId(), newStatus);
+			}
+		}
+		return result;
+	}
+
+
+	private HealthStatus checkModule(final AModule module, final long now)
+	{
+		if (module.getHealth().isStalled(now))
+		{
+			return HealthStatus.STALLED;
+		}
+		try
+		{
+			return module.checkHealth() ? HealthStatus.HEALTHY : HealthStatus.UNHEALTHY;
+		} catch (RuntimeException e)
+		{
+			log.warn("Health check of module " + module + " failed", e);
+			return HealthStatus.UNHEALTHY;
+		}
+	}
+
+
+	private void onStatusChanged(final AModule module, final HealthStatus oldStatus, final HealthStatus newStatus)
+	{
+		if (newStatus == HealthStatus.STALLED)
+		{
+			log.warn("Module " + module + " stalled: no heartbeat for "
+					+ module.getHealth().getTimeSinceHeartbeat().toMillis() + "ms, deadline is "
+					+ module.getHealth().getDeadline().toMillis() + "ms");
+		} else if (newStatus == HealthStatus.UNHEALTHY)
+		{
+			log.warn("Module " + module + " is unhealthy");
+		} else if (oldStatus != HealthStatus.UNKNOWN)
+		{
+			log.info("Module " + module + " recovered from " + oldStatus);
+		}
+		for (IModuleHealthObserver observer : observers)
+		{
+			observer.onModuleHealthChanged(module, oldStatus, newStatus);
+		}
+	}
+
+
+	void addObserver(final IModuleHealthObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	void removeObserver(final IModuleHealthObserver observer)
+	{
+		observers.remove(observer);
+	}
+}
@@ -4,33 +4,56 @@
 
 package edu.tigers.moduli;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
-import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.configuration.SubnodeConfiguration;
-import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.commons.configuration.tree.DefaultConfigurationNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.DirectedAcyclicGraph;
-import org.jgrapht.traverse.TopologicalOrderIterator;
-
+import org.apache.logging.log4j.ThreadContext;
+
+import edu.tigers.moduli.DependencyScheduler.ModuleAction;
+import edu.tigers.moduli.DependencyScheduler.ModuleActionException;
+import edu.tigers.moduli.DependencyScheduler.Outcome;
+import edu.tigers.moduli.ModuliBlueprint.ModuleTemplate;
+import edu.tigers.moduli.config.CompiledConfigCache;
+import edu.tigers.moduli.config.CompiledModuleConfig;
+import edu.tigers.moduli.config.ConfigNode;
+import edu.tigers.moduli.config.ModuleDescriptor;
+import edu.tigers.moduli.config.PropertyBinder;
+import edu.tigers.moduli.events.EventBus;
 import edu.tigers.moduli.exceptions.DependencyException;
 import edu.tigers.moduli.exceptions.InitModuleException;
 import edu.tigers.moduli.exceptions.LoadModulesException;
 import edu.tigers.moduli.exceptions.ModuleNotFoundException;
 import edu.tigers.moduli.exceptions.StartModuleException;
+import edu.tigers.moduli.listenerVariables.HealthStatus;
+import edu.tigers.moduli.listenerVariables.IModuleHealthObserver;
+import edu.tigers.moduli.listenerVariables.ModuleState;
 import edu.tigers.moduli.listenerVariables.ModulesState;
 import edu.tigers.moduli.listenerVariables.ModulesStateVariable;
 
@@ -41,12 +64,40 @@ import edu.tigers.moduli.listenerVariables.ModulesStateVariable;
  */
 public class Moduli
 {
+	/** key of the module name in the log {@link ThreadContext} of lifecycle threads */
+	public static final String MODULE_CONTEXT_KEY = "module";
 	private static final Logger log = LogManager.getLogger(Moduli.class.getName());
-	private final Map<Class<? extends AModule>, AModule> modules = new HashMap<>();
-	private List<AModule> orderedModules = new LinkedList<>();
+	private final Map<Class<?>, ModuleTemplate> lazyModules = new ConcurrentHashMap<>();
+	/** lazy modules that are being created, guarded by the registry lock */
+	private final Map<ModuleTemplate, LazyCreation> lazyCreations = new HashMap<>();
+	private volatile boolean starting = false;
+	private final Object registryLock = new Object();
+	private final Map<Class<?>, CompletableFuture<AModule>> pendingModules = new ConcurrentHashMap<>();
+	private final Map<Class<?>, ModuleHandle<?>> moduleHandles = new ConcurrentHashMap<>();
+	private final Map<Class<? extends AModule>, ModuleTiming> moduleTimings = new ConcurrentHashMap<>();
+	private volatile ModuleRegistry registry = ModuleRegistry.EMPTY;
 	private SubnodeConfiguration globalConfiguration;
 	private ModulesStateVariable modulesState = new ModulesStateVariable();
-	private XMLConfiguration config;
+	private HierarchicalConfiguration config;
+	private CompiledConfigCache configCache = CompiledConfigCache.shared();
+	private ModuleFactories moduleFactories = ModuleFactories.shared();
+	private ModuliBlueprint blueprint;
+	private boolean parallelLifecycle = false;
+	private Duration moduleStopTimeout = Duration.ofSeconds(30);
+	private StartupPolicy startupPolicy = StartupPolicy.FAIL_FAST;
+	private final EventBus eventBus = new EventBus(this::dependsOn);
+	private ILifecycleExecutor lifecycleExecutor = ILifecycleExecutor.createDefault();
+	private final ModuleWatchdog watchdog = new ModuleWatchdog(this::getModules);
+	private Duration watchdogInterval = Duration.ZERO;
+	private final PeriodicTask resourceSampler = new PeriodicTask("Moduli-resources", this::sampleResources);
+	private Duration resourceSamplingInterval = Duration.ZERO;
+	private Path stateSnapshotFile;
+	private ModuleStateSnapshot restoredStates = ModuleStateSnapshot.EMPTY;
+	private final Map<Class<?>, ModuleStateSnapshot.Entry> capturedStates = new ConcurrentHashMap<>();
+	/** completed when the stop of a module finished, including the release of its resources */
+	private final Map<AModule, CompletableFuture<Void>> runningStops = new ConcurrentHashMap<>();
+	/** deinitialization of modules whose stop timed out, runs as soon as the stop finished */
+	private final Map<AModule, CompletableFuture<Void>> lateDeinits = new ConcurrentHashMap<>();
 
 
 	/**
@@ -84,371 +135,1568 @@ public class Moduli
 
 
 	/**
-	 * Loads all available modules from configuration-file into modulesList.
-	 *
-	 * @param xmlFile (module-)configuration-file
-	 * @throws LoadModulesException an error occurs... Can't continue.
+	 * @return true, if independent modules are initialized and started concurrently
 	 */
-	public void loadModules(final String xmlFile) throws LoadModulesException, DependencyException
+	public boolean isParallelLifecycle()
 	{
-		modules.clear();
-		orderedModules.clear();
-
-		modulesState.set(ModulesState.NOT_LOADED);
-		loadModulesFromFile(xmlFile);
+		return parallelLifecycle;
+	}
 
-		Graph<AModule, DefaultEdge> dependencyGraph = buildDependencyGraph();
-		new TopologicalOrderIterator<>(dependencyGraph).forEachRemaining(m -> orderedModules.add(0, m));
 
-		modulesState.set(ModulesState.RESOLVED);
+	/**
+	 * Enable or disable the parallel lifecycle mode.
+	 * In parallel mode, each module is initialized and started on a separate thread
+	 * as soon as all of its dependencies are done. On shutdown, each module is stopped and deinitialized
+	 * as soon as all modules that depend on it are done.
+	 * The mode can also be enabled with the attribute <code>parallel="true"</code> on the root element of the config.
+	 *
+	 * @param parallelLifecycle true to enable the parallel lifecycle mode
+	 */
+	public void setParallelLifecycle(final boolean parallelLifecycle)
+	{
+		this.parallelLifecycle = parallelLifecycle;
 	}
 
 
-	private void loadModulesFromFile(String xmlFile) throws LoadModulesException
+	/**
+	 * @return the policy for failures during {@link #startModules()}
+	 */
+	public StartupPolicy getStartupPolicy()
 	{
-		try
-		{
-			config = new XMLConfiguration(xmlFile);
-
-			setGlobalConfiguration();
+		return startupPolicy;
+	}
 
-			constructModules();
 
-		} catch (ConfigurationException e)
-		{
-			throw new LoadModulesException("Configuration contains errors: " + e.getMessage(), e);
-		} catch (ClassNotFoundException e)
-		{
-			throw new LoadModulesException("Class in configuration can't be found: " + e.getMessage(), e);
-		} catch (ClassCastException e)
-		{
-			throw new LoadModulesException("Given implementation is not an instance of AModule: " + e.getMessage(), e);
-		} catch (SecurityException e)
-		{
-			throw new LoadModulesException("Security issue at configuration : " + e.getMessage(), e);
-		} catch (IllegalArgumentException e)
-		{
-			throw new LoadModulesException("An argument isn't valid : " + e.getMessage(), e);
-		}
+	/**
+	 * Set the policy for failures during {@link #startModules()}.
+	 * The policy can also be set with the attribute <code>startupPolicy="DEGRADED"</code> on the root element
+	 * of the config.
+	 *
+	 * @param startupPolicy the new policy
+	 */
+	public void setStartupPolicy(final StartupPolicy startupPolicy)
+	{
+		this.startupPolicy = startupPolicy;
 	}
 
 
-	private void setGlobalConfiguration()
+	/**
+	 * @return the executor for lifecycle actions in parallel lifecycle mode
+	 */
+	public ILifecycleExecutor getLifecycleExecutor()
 	{
-		globalConfiguration = getModuleConfig("globalConfiguration");
+		return lifecycleExecutor;
 	}
 
 
-	@SuppressWarnings("unchecked")
-	private void constructModules() throws ClassNotFoundException, LoadModulesException
+	/**
+	 * Set the executor for lifecycle actions in parallel lifecycle mode.
+	 * By default, virtual threads are used if the JVM supports them, otherwise a pool of platform threads.
+	 * The previous executor is shut down, unless it is set again.
+	 *
+	 * @param lifecycleExecutor the new executor
+	 */
+	public void setLifecycleExecutor(final ILifecycleExecutor lifecycleExecutor)
 	{
-		for (int i = 0; i <= config.getMaxIndex("module"); i++)
+		Objects.requireNonNull(lifecycleExecutor, "lifecycleExecutor");
+		if (lifecycleExecutor != this.lifecycleExecutor)
 		{
-			Class<? extends AModule> id = (Class<? extends AModule>) Class
-					.forName(config.getString(moduleMessage(i, "[@id]")));
-
-			Class<? extends AModule> clazz = getImplementation(i, id);
-
-			SubnodeConfiguration moduleConfig = getModuleConfig(moduleMessage(i, ".properties"));
-
-			AModule module = (AModule) createObject(clazz);
-
-			module.setSubnodeConfiguration(moduleConfig);
+			this.lifecycleExecutor.shutdown();
+			this.lifecycleExecutor = lifecycleExecutor;
+		}
+	}
 
-			module.setId(id);
 
-			checkModuleIsUnique(module);
+	/**
+	 * @return the maximum duration for stopping or deinitializing a single module in parallel lifecycle mode
+	 */
+	public Duration getModuleStopTimeout()
+	{
+		return moduleStopTimeout;
+	}
 
-			// --- set dependency-list ---
-			String[] rawDependencyList = config.getStringArray(moduleMessage(i, ".dependency"));
-			List<Class<? extends AModule>> dependencyList = new ArrayList<>();
-			for (String dependency : rawDependencyList)
-			{
-				dependencyList.add((Class<? extends AModule>) Class.forName(dependency));
-			}
-			module.setDependencies(dependencyList);
 
+	/**
+	 * Set the maximum duration for stopping or deinitializing a single module in parallel lifecycle mode.
+	 * If a module exceeds the timeout, an error is logged and the shutdown continues with the remaining modules.
+	 * The module is deinitialized as soon as its stop finished, and the next start waits up to the timeout for it.
+	 * The timeout can also be set in milliseconds with the attribute <code>stopTimeout</code>
+	 * on the root element of the config.
+	 *
+	 * @param moduleStopTimeout the timeout per module
+	 */
+	public void setModuleStopTimeout(final Duration moduleStopTimeout)
+	{
+		this.moduleStopTimeout = moduleStopTimeout;
+	}
 
-			modules.put(id, module);
 
-			log.trace("Module created: " + module);
-		}
+	/**
+	 * @return the time between two health checks of the watchdog, zero if the watchdog is disabled
+	 */
+	public Duration getWatchdogInterval()
+	{
+		return watchdogInterval;
 	}
 
 
-	@SuppressWarnings("unchecked")
-	private Class<? extends AModule> getImplementation(final int i, final Class<? extends AModule> id)
-			throws ClassNotFoundException
+	/**
+	 * Set the time between two health checks of the watchdog. The watchdog runs while the modules are active
+	 * and reports modules that missed their heartbeat deadline or whose {@link AModule#checkHealth()} failed.
+	 * The interval can also be set in milliseconds with the attribute <code>watchdogInterval</code>
+	 * on the root element of the config.
+	 *
+	 * @param watchdogInterval the interval, zero to disable the watchdog
+	 */
+	public void setWatchdogInterval(final Duration watchdogInterval)
 	{
-		final String implementationKey = moduleMessage(i, ".implementation");
-		if (config.containsKey(implementationKey))
+		this.watchdogInterval = watchdogInterval;
+		if (modulesState.get() == ModulesState.ACTIVE)
 		{
-			return (Class<? extends AModule>) Class.forName(config.getString(implementationKey));
+			watchdog.start(watchdogInterval);
 		}
-		return id;
 	}
 
 
-	private SubnodeConfiguration getModuleConfig(final String key)
+	/**
+	 * @return the time between two samples of the resource usage of the modules, zero if sampling is disabled
+	 */
+	public Duration getResourceSamplingInterval()
 	{
-		try
-		{
-			return config.configurationAt(key);
-		} catch (IllegalArgumentException e)
-		{
-			return new SubnodeConfiguration(new HierarchicalConfiguration(), new DefaultConfigurationNode());
-		}
+		return resourceSamplingInterval;
 	}
 
 
-	private void checkModuleIsUnique(final AModule module) throws LoadModulesException
+	/**
+	 * Set the time between two samples of the CPU time and allocations of the module threads,
+	 * see {@link ModuleResources}. Sampling runs while the modules are active.
+	 * The interval can also be set in milliseconds with the attribute <code>resourceSamplingInterval</code>
+	 * on the root element of the config.
+	 *
+	 * @param resourceSamplingInterval the interval, zero to disable sampling
+	 */
+	public void setResourceSamplingInterval(final Duration resourceSamplingInterval)
 	{
-		if (modules.containsKey(module.getId()))
+		this.resourceSamplingInterval = resourceSamplingInterval;
+		if (modulesState.get() == ModulesState.ACTIVE)
 		{
-			throw new LoadModulesException("module-id '" + module.getId() + "' isn't unique.");
+			resourceSampler.start(resourceSamplingInterval);
 		}
 	}
 
 
 	/**
-	 * Load modules and catch exceptions
-	 *
-	 * @param filename of the moduli config
+	 * @return the file for the state snapshots of the modules or null, if states are not kept between restarts
 	 */
-	public void loadModulesSafe(final String filename)
+	public Path getStateSnapshotFile()
 	{
-		try
-		{
-			loadModules(filename);
-			log.debug("Loaded config: " + filename);
-		} catch (final LoadModulesException | DependencyException e)
-		{
-			log.error(e.getMessage() + " (moduleConfigFile: '" + filename
-					+ "') ", e);
-		}
+		return stateSnapshotFile;
 	}
 
 
 	/**
-	 * Starts all modules in modulesList.
+	 * Keep the states of the modules between restarts, see {@link AModule#snapshotState()}.
+	 * The states are written to the file when the modules are stopped and restored before the modules are started.
+	 * The file can also be set with the attribute <code>stateSnapshot</code> on the root element of the config.
 	 *
-	 * @throws InitModuleException if the initialization of a module fails
-	 * @throws StartModuleException if the start of a module fails
+	 * @param stateSnapshotFile the snapshot file or null to disable snapshots
 	 */
-	public void startModules() throws InitModuleException, StartModuleException
+	public void setStateSnapshotFile(final Path stateSnapshotFile)
 	{
-		initModules(orderedModules);
-		startUpModules(orderedModules);
-
-		modulesState.set(ModulesState.ACTIVE);
+		this.stateSnapshotFile = stateSnapshotFile;
 	}
 
 
-	private Graph<AModule, DefaultEdge> buildDependencyGraph() throws DependencyException
+	/**
+	 * @return the cache for compiled module configurations
+	 */
+	public CompiledConfigCache getConfigCache()
 	{
-		try
-		{
-			DirectedAcyclicGraph<AModule, DefaultEdge> dependencyGraph = new DirectedAcyclicGraph<>(DefaultEdge.class);
-			for (AModule module : modules.values())
-			{
-				dependencyGraph.addVertex(module);
-				for (Class<? extends AModule> dependencyId : module.getDependencies())
-				{
-					AModule dependency = modules.get(dependencyId);
-					if (dependency == null)
-					{
-						throw new DependencyException(
-								"Dependency " + dependencyId + " is required by " + module + ", but not started.");
-					}
-					dependencyGraph.addVertex(dependency);
-					dependencyGraph.addEdge(module, dependency);
-				}
-			}
-			return dependencyGraph;
-		} catch (IllegalArgumentException e)
-		{
-			throw new DependencyException("Cycle in dependencies: ", e);
-		}
+		return configCache;
 	}
 
 
-	private void initModules(List<AModule> orderedModules) throws InitModuleException
+	/**
+	 * Set the cache for compiled module configurations.
+	 * By default, an in-memory cache is used that is shared by all instances.
+	 * Use a cache with a directory to skip parsing unchanged configurations across restarts.
+	 *
+	 * @param configCache the cache to use
+	 */
+	public void setConfigCache(final CompiledConfigCache configCache)
 	{
-		for (AModule m : orderedModules)
-		{
-			try
-			{
-				log.trace("Initializing module " + m);
-				m.initModule();
-				log.trace(moduleMessage(m, "initialized"));
-			} catch (Exception err)
-			{
-				throw new InitModuleException("Could not initialize module " + m, err);
-			}
-		}
+		this.configCache = configCache;
 	}
 
 
-	private void startUpModules(List<AModule> orderedModules) throws StartModuleException
+	/**
+	 * @return the index of generated module factories
+	 */
+	public ModuleFactories getModuleFactories()
 	{
-		for (AModule m : orderedModules)
-		{
-			if (!m.isStartModule())
-			{
-				continue;
-			}
-			try
-			{
-				log.trace("Starting module " + m);
-				m.startModule();
-				log.trace(moduleMessage(m, "started"));
-			} catch (Exception err)
-			{
-				throw new StartModuleException("Could not initialize module " + m, err);
-			}
-		}
+		return moduleFactories;
 	}
 
 
 	/**
-	 * Stops all modules in modulesList.
+	 * Set the index of generated module factories that is used to create modules without reflection.
+	 * By default, all factories visible to the class loader of Moduli are used.
+	 *
+	 * @param moduleFactories the factories to use
 	 */
-	public void stopModules()
+	public void setModuleFactories(final ModuleFactories moduleFactories)
 	{
-		List<AModule> reversedModules = new ArrayList<>(orderedModules);
-		Collections.reverse(reversedModules);
+		this.moduleFactories = moduleFactories;
+	}
+
 
-		internalStopModules(reversedModules);
+	/**
+	 * Loads all modules of the given index with the dependencies declared by their
+	 * {@link edu.tigers.moduli.annotation.Module} annotation, without a configuration file.
+	 *
+	 * @param factories the index of module factories
+	 * @throws LoadModulesException an error occurs... Can't continue.
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public void loadModules(final ModuleFactories factories) throws LoadModulesException, DependencyException
+	{
+		clearModules();
+		moduleFactories = factories;
+		loadModules(factories.compile());
+	}
 
-		deinitModules(reversedModules);
 
-		modulesState.set(ModulesState.RESOLVED);
+	/**
+	 * Loads all available modules from configuration-file into modulesList.
+	 * Modules with the attribute <code>lazy="true"</code> are only created on first access,
+	 * unless an eager module depends on them.
+	 *
+	 * @param xmlFile (module-)configuration-file
+	 * @throws LoadModulesException an error occurs... Can't continue.
+	 */
+	public void loadModules(final String xmlFile) throws LoadModulesException, DependencyException
+	{
+		clearModules();
+		loadModules(configCache.load(xmlFile));
 	}
 
 
-	private void internalStopModules(final List<AModule> reversedModules)
+	/**
+	 * Loads all modules of a compiled configuration into modulesList.
+	 *
+	 * @param compiledConfig the compiled (module-)configuration
+	 * @throws LoadModulesException an error occurs... Can't continue.
+	 */
+	public void loadModules(final CompiledModuleConfig compiledConfig) throws LoadModulesException
 	{
-		for (AModule m : reversedModules)
-		{
-			if (!m.isStartModule())
-			{
-				continue;
-			}
-			try
-			{
-				m.stopModule();
-				log.trace(moduleMessage(m, "stopped"));
-			} catch (Exception err)
-			{
-				log.error("Exception while stopping module: " + m, err);
-			}
-		}
+		clearModules();
+		loadModules(ModuliBlueprint.of(compiledConfig, moduleFactories));
 	}
 
 
-	private void deinitModules(final List<AModule> reversedModules)
+	/**
+	 * Loads all modules of a pre-resolved blueprint into modulesList.
+	 * Use a shared blueprint to create many Moduli instances for the same configuration without resolving
+	 * it again for each instance.
+	 *
+	 * @param blueprint the blueprint
+	 * @throws LoadModulesException an error occurs... Can't continue.
+	 */
+	public void loadModules(final ModuliBlueprint blueprint) throws LoadModulesException
 	{
-		for (AModule m : reversedModules)
+		clearModules();
+		moduleFactories = blueprint.getModuleFactories();
+
+		applyConfig(blueprint.getConfig());
+		setGlobalConfiguration(blueprint.getConfig());
+
+		List<AModule> loaded = new ArrayList<>();
+		for (ModuleTemplate template : blueprint.getModules())
 		{
-			try
-			{
-				m.deinitModule();
-				log.trace(moduleMessage(m, "deinitialized"));
-			} catch (Exception err)
+			if (template.isLazy())
 			{
-				log.error("Exception while deinitializing module: " + m, err);
+				registerLazyModule(template);
+				continue;
 			}
+			loaded.add(constructModule(template));
 		}
+
+		publishModules(ModuleRegistry.of(loaded));
+		this.blueprint = blueprint;
+
+		modulesState.set(ModulesState.RESOLVED);
 	}
 
 
 	/**
-	 * Returns a list with all loaded modules.
+	 * Applies a changed configuration to the active modules.
+	 * Only modules whose implementation, dependencies or properties changed are restarted,
+	 * together with all modules that depend on them. Removed modules are stopped and added modules are started.
+	 * All other modules keep running.
+	 * If the modules are not active, or the global configuration changed, all modules are reloaded.
+	 * The modules are started with the {@link StartupPolicy} like in {@link #startModules()}.
+	 * Restarted modules get back the state that they had when they were stopped,
+	 * unless their implementation or properties changed.
 	 *
-	 * @return all modules
+	 * @param xmlFile (module-)configuration-file
+	 * @return the ids of all modules that were (re-)started, in start order,
+	 *         without the failed and skipped modules with {@link StartupPolicy#DEGRADED}
+	 * @throws LoadModulesException if the configuration can not be loaded
+	 * @throws DependencyException if the dependencies of the new configuration can not be resolved
+	 * @throws InitModuleException if the initialization of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @throws StartModuleException if the start of a module fails with {@link StartupPolicy#FAIL_FAST}
 	 */
-	public List<AModule> getModules()
+	public List<Class<? extends AModule>> reloadModules(final String xmlFile)
+			throws LoadModulesException, DependencyException, InitModuleException, StartModuleException
 	{
-		return new ArrayList<>(modules.values());
+		return reloadModules(configCache.load(xmlFile));
 	}
 
 
 	/**
-	 * Gets a module from current module-list.
+	 * Applies a changed compiled configuration to the active modules.
 	 *
-	 * @param moduleId the type of the model
-	 * @return the instance of the module for the id
-	 * @throws ModuleNotFoundException if the module couldn't be found
+	 * @param newConfig the new compiled (module-)configuration
+	 * @return the ids of all modules that were (re-)started, in start order,
+	 *         without the failed and skipped modules with {@link StartupPolicy#DEGRADED}
+	 * @throws LoadModulesException if the configuration can not be loaded
+	 * @throws InitModuleException if the initialization of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @throws StartModuleException if the start of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @see #reloadModules(String)
 	 */
-	public <T extends AModule> T getModule(Class<T> moduleId)
+	public List<Class<? extends AModule>> reloadModules(final CompiledModuleConfig newConfig)
+			throws LoadModulesException, InitModuleException, StartModuleException
 	{
-		return getModuleOpt(moduleId)
-				.orElseThrow(() -> new ModuleNotFoundException(moduleMessage(moduleId, "not found")));
+		return reloadModules(ModuliBlueprint.of(newConfig, moduleFactories));
 	}
 
 
 	/**
-	 * Gets a module from current module-list.
+	 * Applies a changed blueprint to the active modules.
 	 *
-	 * @param moduleId the type of the model
-	 * @return the instance of the module for the id
+	 * @param newBlueprint the new blueprint
+	 * @return the ids of all modules that were (re-)started, in start order,
+	 *         without the failed and skipped modules with {@link StartupPolicy#DEGRADED}
+	 * @throws LoadModulesException if a module can not be constructed
+	 * @throws InitModuleException if the initialization of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @throws StartModuleException if the start of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @see #reloadModules(String)
 	 */
-	@SuppressWarnings("unchecked")
-	public <T extends AModule> Optional<T> getModuleOpt(Class<T> moduleId)
+	public List<Class<? extends AModule>> reloadModules(final ModuliBlueprint newBlueprint)
+			throws LoadModulesException, InitModuleException, StartModuleException
 	{
-		final AModule aModule = modules.get(moduleId);
-		if (aModule != null)
+		CompiledModuleConfig newConfig = newBlueprint.getConfig();
+		boolean active = modulesState.get() == ModulesState.ACTIVE;
+		if (!active || blueprint == null || !hasSameEnvironment(blueprint.getConfig(), newConfig))
+		{
+			if (active)
+			{
+				stopModules();
+			}
+			loadModules(newBlueprint);
+			if (active)
+			{
+				return startedModules(registry.getModules(), startModules());
+			}
+			return registry.getModules().stream().map(AModule::getId).collect(Collectors.toList());
+		}
+
+		ModuliBlueprint oldBlueprint = blueprint;
+		List<AModule> oldOrder = registry.getModules();
+		Set<Class<? extends AModule>> affected = new HashSet<>();
+		for (AModule m : oldOrder)
+		{
+			String id = m.getId().getName();
+			ModuleTemplate newTemplate = newBlueprint.getModule(id);
+			if (newTemplate == null || !oldBlueprint.getModule(id).getDescriptor().equals(newTemplate.getDescriptor())
+					|| m.getDependencies().stream().anyMatch(affected::contains))
+			{
+				affected.add(m.getId());
+			}
+		}
+
+		List<AModule> stopped = oldOrder.stream()
+				.filter(m -> affected.contains(m.getId()))
+				.collect(Collectors.toList());
+		Collections.reverse(stopped);
+		shutdownModules(stopped);
+
+		applyConfig(newConfig);
+		lazyModules.clear();
+		Map<String, AModule> oldModules = new HashMap<>();
+		oldOrder.forEach(m -> oldModules.put(m.getId().getName(), m));
+		List<AModule> newOrder = new ArrayList<>();
+		List<AModule> restarted = new ArrayList<>();
+		for (ModuleTemplate template : newBlueprint.getModules())
 		{
-			return Optional.of((T) aModule);
+			ModuleDescriptor descriptor = template.getDescriptor();
+			ModuleTemplate oldTemplate = oldBlueprint.getModule(descriptor.getId());
+			AModule module = oldModules.get(descriptor.getId());
+			if (module != null && oldTemplate != null && descriptor.equals(oldTemplate.getDescriptor()))
+			{
+				if (affected.contains(module.getId()))
+				{
+					restarted.add(module);
+				}
+			} else if (template.isLazy())
+			{
+				registerLazyModule(template);
+				continue;
+			} else
+			{
+				module = constructModule(template);
+				restarted.add(module);
+			}
+			newOrder.add(module);
 		}
-		return modules.values().stream()
-				.filter(m -> m.getClass().equals(moduleId))
-				.map(a -> (T) a)
-				.findFirst();
+
+		moduleTimings.keySet().retainAll(newOrder.stream().map(AModule::getId).collect(Collectors.toSet()));
+		publishModules(ModuleRegistry.of(newOrder));
+		blueprint = newBlueprint;
+		log.debug("Restarting modules after reload: " + restarted);
+
+		// restore the states captured at the shutdown, unless the class or the properties of a module changed
+		ModuleStateSnapshot states = ModuleStateSnapshot.of(capturedStates.values());
+		return startedModules(restarted, startModules(restarted, states));
 	}
 
 
-	/**
-	 * Check whether a module is loaded.
-	 *
-	 * @param moduleId the Class of the module
-	 * @return if the module is loaded
-	 */
-	public boolean isModuleLoaded(Class<? extends AModule> moduleId)
+	private List<Class<? extends AModule>> startedModules(final List<AModule> orderedModules,
+			final StartupResult result)
 	{
-		return modules.containsKey(moduleId)
-				|| modules.values().stream().map(Object::getClass).anyMatch(c -> c.equals(moduleId));
+		return orderedModules.stream()
+				.map(AModule::getId)
+				.filter(id -> !result.getFailedModules().containsKey(id) && !result.getSkippedModules().contains(id))
+				.collect(Collectors.toList());
 	}
 
 
-	/**
-	 * Creates an object from a clazz.
-	 *
-	 * @param clazz
-	 */
-	private Object createObject(final Class<? extends AModule> clazz)
+	private boolean hasSameEnvironment(final CompiledModuleConfig oldConfig, final CompiledModuleConfig newConfig)
 	{
-		try
-		{
-			Constructor<? extends AModule> constructor = clazz.getDeclaredConstructor();
-			constructor.setAccessible(true);
-			return constructor.newInstance();
-		} catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException
-				| IllegalArgumentException e)
+		return oldConfig != null
+				&& oldConfig.getRoot().getAttributes().equals(newConfig.getRoot().getAttributes())
+				&& Objects.equals(oldConfig.getRoot().getChild("globalConfiguration"),
+						newConfig.getRoot().getChild("globalConfiguration"));
+	}
+
+
+	private void applyConfig(final CompiledModuleConfig compiledConfig)
+	{
+		config = new HierarchicalConfiguration();
+		config.setRootNode(compiledConfig.getRoot().toConfigurationNode());
+		parallelLifecycle = config.getBoolean("[@parallel]", parallelLifecycle);
+		moduleStopTimeout = Duration.ofMillis(config.getLong("[@stopTimeout]", moduleStopTimeout.toMillis()));
+		startupPolicy = StartupPolicy.valueOf(config.getString("[@startupPolicy]", startupPolicy.name()));
+		watchdogInterval = Duration.ofMillis(config.getLong("[@watchdogInterval]", watchdogInterval.toMillis()));
+		resourceSamplingInterval = Duration.ofMillis(config.getLong("[@resourceSamplingInterval]",
+				resourceSamplingInterval.toMillis()));
+		String snapshotFile = config.getString("[@stateSnapshot]");
+		if (snapshotFile != null)
 		{
-			throw new IllegalArgumentException("Error constructing module", e);
+			stateSnapshotFile = Paths.get(snapshotFile);
 		}
 	}
 
 
-	private String moduleMessage(Object module, String message)
+	private void clearModules()
 	{
-		return "Module " + module + " " + message;
+		moduleTimings.clear();
+		lazyModules.clear();
+		blueprint = null;
+		eventBus.close();
+		publishModules(ModuleRegistry.EMPTY);
+
+		modulesState.set(ModulesState.NOT_LOADED);
+	}
+
+
+	private void setGlobalConfiguration(final CompiledModuleConfig compiledConfig)
+	{
+		globalConfiguration = getModuleConfig(compiledConfig.getRoot().getChild("globalConfiguration"));
 	}
 
 
-	private String moduleMessage(int moduleNumber, String property)
+	private AModule constructModule(final ModuleTemplate template) throws LoadModulesException
 	{
-		return "module(" + moduleNumber + ")" + property;
+		try
+		{
+			Class<? extends AModule> id = template.getId();
+			ModuleDescriptor descriptor = template.getDescriptor();
+			SubnodeConfiguration moduleConfig = getModuleConfig(descriptor.getProperties());
+			Object properties = PropertyBinder.bind(template.getImplementation(), descriptor.getProperties(),
+					moduleConfig);
+
+			LifecycleStopwatch stopwatch = LifecycleStopwatch.start();
+			AModule module = template.create();
+			stopwatch.stop(getModuleTiming(id), LifecyclePhase.CONSTRUCT);
+
+			module.setSubnodeConfiguration(moduleConfig);
+			module.setProperties(properties);
+			module.setExecutors(new ModuleExecutors(template.getImplementation().getSimpleName(), moduleConfig,
+					module.getResources()));
+			module.setEventBus(eventBus);
+			module.getHealth().configure(moduleConfig);
+
+			module.setId(id);
+			module.setDependencies(new ArrayList<>(template.getDependencies()));
+
+			log.trace("Module created: " + module);
+			return module;
+		} catch (SecurityException e)
+		{
+			throw new LoadModulesException("Security issue at configuration : " + e.getMessage(), e);
+		} catch (IllegalArgumentException e)
+		{
+			throw new LoadModulesException("An argument isn't valid : " + e.getMessage(), e);
+		}
+	}
+
+
+	private void registerLazyModule(final ModuleTemplate template)
+	{
+		lazyModules.put(template.getId(), template);
+		lazyModules.putIfAbsent(template.getImplementation(), template);
+		log.trace(moduleMessage(template, "registered as lazy module"));
+	}
+
+
+	/**
+	 * Create a lazy module and all of its lazy dependencies.
+	 * If the modules are active or being started, the created modules are initialized and started, too.
+	 * Each lazy module is created by the first thread that requests it, concurrent requests wait for it.
+	 * The lifecycle methods run without holding the registry lock, so they may request other modules.
+	 *
+	 * @param moduleId the module id or implementation class
+	 * @return the module or null, if there is no lazy module for the id
+	 */
+	private AModule getLazyModule(final Class<?> moduleId)
+	{
+		if (lazyModules.isEmpty())
+		{
+			return null;
+		}
+		ModuleTemplate template;
+		LazyCreation creation;
+		synchronized (registryLock)
+		{
+			AModule module = registry.get(moduleId);
+			if (module != null)
+			{
+				return module;
+			}
+			template = lazyModules.get(moduleId);
+			if (template == null)
+			{
+				return null;
+			}
+			creation = lazyCreations.get(template);
+			if (creation != null)
+			{
+				if (creation.thread == Thread.currentThread())
+				{
+					throw new ModuleNotFoundException(moduleMessage(template, "was requested during its own creation"));
+				}
+			} else
+			{
+				creation = new LazyCreation();
+				lazyCreations.put(template, creation);
+			}
+		}
+		if (creation.thread != Thread.currentThread())
+		{
+			return creation.join();
+		}
+
+		try
+		{
+			AModule module = createLazyModule(template);
+			creation.future.complete(module);
+			return module;
+		} catch (LoadModulesException | InitModuleException | StartModuleException | RuntimeException e)
+		{
+			ModuleNotFoundException error = new ModuleNotFoundException(moduleMessage(template, "could not be created"),
+					e);
+			creation.future.completeExceptionally(error);
+			throw error;
+		} finally
+		{
+			synchronized (registryLock)
+			{
+				lazyCreations.remove(template);
+			}
+		}
+	}
+
+
+	private AModule createLazyModule(final ModuleTemplate template)
+			throws LoadModulesException, InitModuleException, StartModuleException
+	{
+		for (Class<? extends AModule> dependency : template.getDependencies())
+		{
+			if (lazyModules.containsKey(dependency))
+			{
+				getLazyModule(dependency);
+			}
+		}
+
+		AModule module = constructModule(template);
+		if (starting || modulesState.get() == ModulesState.ACTIVE)
+		{
+			initModules(List.of(module));
+			startUpModules(List.of(module));
+		}
+
+		// publish before removing the template, so that concurrent requests find either of them
+		publishModules(current -> current.withModule(module));
+		lazyModules.values().removeIf(template::equals);
+		return module;
+	}
+
+
+	private SubnodeConfiguration getModuleConfig(final ConfigNode node)
+	{
+		if (node == null)
+		{
+			return new SubnodeConfiguration(new HierarchicalConfiguration(), new DefaultConfigurationNode());
+		}
+		return new SubnodeConfiguration(config, node.toConfigurationNode());
+	}
+
+
+	/**
+	 * Publish a new registry, bind the module handles and complete pending
+	 * {@link #awaitState(Class, ModuleState)} requests for the new modules.
+	 * The registry is swapped atomically, so concurrent readers see either the old or the new modules.
+	 */
+	private void publishModules(final ModuleRegistry newRegistry)
+	{
+		publishModules(current -> newRegistry);
+	}
+
+
+	/**
+	 * Publish a registry that is derived from the current one under the registry lock,
+	 * so that concurrent updates are not lost.
+	 */
+	private void publishModules(final UnaryOperator<ModuleRegistry> update)
+	{
+		ModuleRegistry newRegistry;
+		synchronized (registryLock)
+		{
+			newRegistry = update.apply(registry);
+			registry = newRegistry;
+			moduleHandles.values().forEach(h -> h.bind(newRegistry.get(h.getModuleId())));
+		}
+		pendingModules.forEach((id, future) -> {
+			AModule module = newRegistry.get(id);
+			if (module != null && pendingModules.remove(id, future))
+			{
+				future.complete(module);
+			}
+		});
+	}
+
+
+	/**
+	 * Load modules and catch exceptions
+	 *
+	 * @param filename of the moduli config
+	 */
+	public void loadModulesSafe(final String filename)
+	{
+		try
+		{
+			loadModules(filename);
+			log.debug("Loaded config: " + filename);
+		} catch (final LoadModulesException | DependencyException e)
+		{
+			log.error(e.getMessage() + " (moduleConfigFile: '" + filename
+					+ "') ", e);
+		}
+	}
+
+
+	/**
+	 * Starts all modules in modulesList.
+	 * With {@link StartupPolicy#DEGRADED}, failures do not abort the startup, but are reported in the result.
+	 *
+	 * @return the failed and skipped modules
+	 * @throws InitModuleException if the initialization of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 * @throws StartModuleException if the start of a module fails with {@link StartupPolicy#FAIL_FAST}
+	 */
+	public StartupResult startModules() throws InitModuleException, StartModuleException
+	{
+		StartupResult result = startModules(registry.getModules(), stateSnapshotFile == null
+				? ModuleStateSnapshot.EMPTY
+				: ModuleStateSnapshot.read(stateSnapshotFile));
+
+		modulesState.set(ModulesState.ACTIVE);
+		watchdog.start(watchdogInterval);
+		resourceSampler.start(resourceSamplingInterval);
+
+		if (log.isDebugEnabled())
+		{
+			log.debug(getLifecycleReport());
+		}
+		return result;
+	}
+
+
+	/**
+	 * Initialize and start the given modules according to the startup policy.
+	 *
+	 * @param orderedModules the modules in dependency order
+	 * @param states the states to restore into the modules
+	 * @return the failed and skipped modules
+	 */
+	private StartupResult startModules(final List<AModule> orderedModules, final ModuleStateSnapshot states)
+			throws InitModuleException, StartModuleException
+	{
+		awaitLateDeinits(orderedModules);
+		starting = true;
+		capturedStates.clear();
+		restoredStates = states;
+		try
+		{
+			if (startupPolicy == StartupPolicy.DEGRADED)
+			{
+				return startModulesDegraded(orderedModules);
+			}
+			initModules(orderedModules);
+			startUpModules(orderedModules);
+			return new StartupResult(Collections.emptyMap(), Collections.emptyList());
+		} finally
+		{
+			restoredStates = ModuleStateSnapshot.EMPTY;
+			starting = false;
+		}
+	}
+
+
+	/**
+	 * Initialize and start the modules, but isolate failures: Modules that depend on a failed module are skipped
+	 * and, if they were already initialized, deinitialized again in reverse order.
+	 */
+	private StartupResult startModulesDegraded(final List<AModule> orderedModules)
+	{
+		Map<Class<? extends AModule>, Throwable> failed = new HashMap<>();
+		Set<AModule> skipped = new HashSet<>();
+
+		Outcome initOutcome = runIsolated(orderedModules, LifecyclePhase.INIT, this::initModule);
+		initOutcome.getFailed().forEach((m, err) -> failed.put(m.getId(), err));
+		skipped.addAll(initOutcome.getSkipped());
+		List<AModule> initialized = orderedModules.stream()
+				.filter(m -> !initOutcome.isAffected(m))
+				.collect(Collectors.toList());
+
+		Outcome startOutcome = runIsolated(initialized, LifecyclePhase.START, this::startUpModule);
+		startOutcome.getFailed().forEach((m, err) -> failed.put(m.getId(), err));
+		skipped.addAll(startOutcome.getSkipped());
+		List<AModule> rollback = initialized.stream()
+				.filter(startOutcome::isAffected)
+				.collect(Collectors.toList());
+		Collections.reverse(rollback);
+		shutdownModules(rollback);
+
+		failed.forEach((id, err) -> log.error("Module " + id.getSimpleName() + " failed, running in degraded mode", err));
+		if (!skipped.isEmpty())
+		{
+			log.warn("Modules skipped due to failed dependencies: " + skipped);
+		}
+
+		Map<Class<? extends AModule>, Throwable> orderedFailed = new LinkedHashMap<>();
+		List<Class<? extends AModule>> orderedSkipped = new ArrayList<>();
+		for (AModule m : orderedModules)
+		{
+			if (failed.containsKey(m.getId()))
+			{
+				orderedFailed.put(m.getId(), failed.get(m.getId()));
+			} else if (skipped.contains(m))
+			{
+				orderedSkipped.add(m.getId());
+			}
+		}
+		return new StartupResult(orderedFailed, orderedSkipped);
+	}
+
+
+	private Outcome runIsolated(List<AModule> orderedModules, LifecyclePhase phase, ModuleAction action)
+	{
+		Executor executor = parallelLifecycle ? lifecycleExecutor : Runnable::run;
+		ModuleAction isolatedAction = parallelLifecycle ? withThreadContext(phase, action) : action;
+		try
+		{
+			return new DependencyScheduler(orderedModules, this::getDependencyModules).runIsolated(executor,
+					isolatedAction);
+		} catch (InterruptedException err)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running " + phase + " of modules", err);
+		}
+	}
+
+
+	private void initModules(List<AModule> orderedModules) throws InitModuleException
+	{
+		if (parallelLifecycle)
+		{
+			try
+			{
+				runInDependencyOrder(orderedModules, LifecyclePhase.INIT, this::initModule);
+			} catch (ModuleActionException err)
+			{
+				throw new InitModuleException("Could not initialize module " + err.getModule(), err.getCause());
+			}
+			return;
+		}
+		for (AModule m : orderedModules)
+		{
+			try
+			{
+				initModule(m);
+			} catch (Exception err)
+			{
+				throw new InitModuleException("Could not initialize module " + m, err);
+			}
+		}
+	}
+
+
+	private void initModule(AModule m) throws InitModuleException
+	{
+		log.trace("Initializing module " + m);
+		LifecycleStopwatch stopwatch = LifecycleStopwatch.start();
+		if (!m.setState(ModuleState.INITIALIZING))
+		{
+			throw new InitModuleException(moduleMessage(m, "can not be initialized in state " + m.getState()), null);
+		}
+		m.getExecutors().open();
+		try
+		{
+			m.initModule();
+			m.setState(ModuleState.INITIALIZED);
+		} catch (InitModuleException | RuntimeException err)
+		{
+			m.setState(ModuleState.FAILED);
+			throw err;
+		} finally
+		{
+			stopwatch.stop(getModuleTiming(m.getId()), LifecyclePhase.INIT);
+		}
+		log.trace(moduleMessage(m, "initialized"));
+	}
+
+
+	private void startUpModules(List<AModule> orderedModules) throws StartModuleException
+	{
+		if (parallelLifecycle)
+		{
+			try
+			{
+				runInDependencyOrder(orderedModules, LifecyclePhase.START, this::startUpModule);
+			} catch (ModuleActionException err)
+			{
+				throw new StartModuleException("Could not initialize module " + err.getModule(), err.getCause());
+			}
+			return;
+		}
+		for (AModule m : orderedModules)
+		{
+			try
+			{
+				startUpModule(m);
+			} catch (Exception err)
+			{
+				throw new StartModuleException("Could not initialize module " + m, err);
+			}
+		}
+	}
+
+
+	private void startUpModule(AModule m) throws StartModuleException
+	{
+		if (!m.isStartModule())
+		{
+			return;
+		}
+		log.trace("Starting module " + m);
+		LifecycleStopwatch stopwatch = LifecycleStopwatch.start();
+		if (!m.setState(ModuleState.STARTING))
+		{
+			throw new StartModuleException(moduleMessage(m, "can not be started in state " + m.getState()), null);
+		}
+		m.getExecutors().open();
+		m.getHealth().reset();
+		try
+		{
+			restoreState(m);
+			m.startModule();
+			m.setState(ModuleState.STARTED);
+		} catch (StartModuleException | RuntimeException err)
+		{
+			m.setState(ModuleState.FAILED);
+			throw err;
+		} finally
+		{
+			stopwatch.stop(getModuleTiming(m.getId()), LifecyclePhase.START);
+		}
+		log.trace(moduleMessage(m, "started"));
+	}
+
+
+	private void restoreState(final AModule m)
+	{
+		ByteBuffer state = restoredStates.getState(m, getModuleProperties(m));
+		if (state == null)
+		{
+			return;
+		}
+		try
+		{
+			m.restoreState(state);
+			log.trace(moduleMessage(m, "restored its state"));
+		} catch (RuntimeException err)
+		{
+			log.warn("Could not restore state of module " + m + ", starting without it", err);
+		}
+	}
+
+
+	private void captureState(final AModule m)
+	{
+		if (stateSnapshotFile == null)
+		{
+			return;
+		}
+		try
+		{
+			ModuleStateSnapshot.Entry entry = ModuleStateSnapshot.capture(m, getModuleProperties(m));
+			if (entry != null)
+			{
+				capturedStates.put(m.getId(), entry);
+			}
+		} catch (RuntimeException err)
+		{
+			log.warn("Could not capture state of module " + m, err);
+		}
+	}
+
+
+	private ConfigNode getModuleProperties(final AModule m)
+	{
+		ModuleTemplate template = blueprint == null ? null : blueprint.getModule(m.getId().getName());
+		return template == null ? null : template.getDescriptor().getProperties();
+	}
+
+
+	private void writeStates(final List<AModule> modules)
+	{
+		if (stateSnapshotFile == null)
+		{
+			return;
+		}
+		List<ModuleStateSnapshot.Entry> entries = modules.stream()
+				.map(m -> capturedStates.get(m.getId()))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		capturedStates.clear();
+		if (entries.isEmpty())
+		{
+			// keep the states of the last snapshot, e.g. if no module was started
+			return;
+		}
+		// keep the states of modules that were not stopped this time, e.g. after a failed startup
+		Set<String> capturedIds = entries.stream().map(ModuleStateSnapshot.Entry::getId).collect(Collectors.toSet());
+		ModuleStateSnapshot.read(stateSnapshotFile).getEntries().stream()
+				.filter(e -> !capturedIds.contains(e.getId()))
+				.forEach(entries::add);
+		try
+		{
+			ModuleStateSnapshot.write(stateSnapshotFile, entries);
+		} catch (IOException e)
+		{
+			log.error("Could not write module state snapshot " + stateSnapshotFile, e);
+		}
+	}
+
+
+	private void runInDependencyOrder(List<AModule> orderedModules, LifecyclePhase phase, ModuleAction action)
+			throws ModuleActionException
+	{
+		try
+		{
+			new DependencyScheduler(orderedModules, this::getDependencyModules)
+					.run(lifecycleExecutor, withThreadContext(phase, action));
+		} catch (InterruptedException err)
+		{
+			Thread.currentThread().interrupt();
+			throw new ModuleActionException(null, err);
+		}
+	}
+
+
+	private List<AModule> getDependencyModules(AModule module)
+	{
+		ModuleRegistry currentRegistry = registry;
+		return module.getDependencies().stream()
+				.map(currentRegistry::getById)
+				.collect(Collectors.toList());
+	}
+
+
+	/**
+	 * Run the action with a thread name for the module and phase and with the log context of the calling thread,
+	 * extended by the module name.
+	 */
+	private ModuleAction withThreadContext(LifecyclePhase phase, ModuleAction action)
+	{
+		Map<String, String> callerContext = ThreadContext.getImmutableContext();
+		return m -> {
+			Thread thread = Thread.currentThread();
+			String threadName = thread.getName();
+			Map<String, String> threadContext = ThreadContext.getImmutableContext();
+			thread.setName("Moduli-" + phase.name().toLowerCase() + "-" + m);
+			ThreadContext.putAll(callerContext);
+			ThreadContext.put(MODULE_CONTEXT_KEY, m.toString());
+			try
+			{
+				action.apply(m);
+			} finally
+			{
+				ThreadContext.clearMap();
+				ThreadContext.putAll(threadContext);
+				thread.setName(threadName);
+			}
+		};
+	}
+
+
+	/**
+	 * Stops all modules in modulesList.
+	 */
+	public void stopModules()
+	{
+		watchdog.stop();
+		resourceSampler.stop();
+		List<AModule> reversedModules = new ArrayList<>(registry.getModules());
+		Collections.reverse(reversedModules);
+
+		shutdownModules(reversedModules);
+		writeStates(registry.getModules());
+
+		modulesState.set(ModulesState.RESOLVED);
+	}
+
+
+	private void shutdownModules(final List<AModule> reversedModules)
+	{
+		if (parallelLifecycle)
+		{
+			Set<AModule> stillStopping = runInReverseDependencyOrder(reversedModules, LifecyclePhase.STOP,
+					this::stopModule, "stopping");
+			if (!stillStopping.isEmpty())
+			{
+				log.warn("Deinitializing modules after their stop finished: " + stillStopping);
+				stillStopping.forEach(this::deinitAfterStop);
+			}
+			List<AModule> stopped = reversedModules.stream()
+					.filter(m -> !stillStopping.contains(m))
+					.collect(Collectors.toList());
+			runInReverseDependencyOrder(stopped, LifecyclePhase.DEINIT, this::deinitModule, "deinitializing");
+		} else
+		{
+			internalStopModules(reversedModules);
+			deinitModules(reversedModules);
+		}
+	}
+
+
+	private void internalStopModules(final List<AModule> reversedModules)
+	{
+		for (AModule m : reversedModules)
+		{
+			try
+			{
+				stopModule(m);
+			} catch (Exception err)
+			{
+				log.error("Exception while stopping module: " + m, err);
+			}
+		}
+	}
+
+
+	private void stopModule(final AModule m)
+	{
+		if (m.getState() != ModuleState.STARTED)
+		{
+			return;
+		}
+		LifecycleStopwatch stopwatch = LifecycleStopwatch.start();
+		if (!m.setState(ModuleState.STOPPING))
+		{
+			return;
+		}
+		CompletableFuture<Void> stopped = new CompletableFuture<>();
+		runningStops.put(m, stopped);
+		try
+		{
+			m.stopModule();
+			if (m.setState(ModuleState.STOPPED))
+			{
+				captureState(m);
+			}
+		} catch (RuntimeException err)
+		{
+			m.setState(ModuleState.FAILED);
+			throw err;
+		} finally
+		{
+			eventBus.release(m.getId());
+			m.getExecutors().shutdown(moduleStopTimeout);
+			stopwatch.stop(getModuleTiming(m.getId()), LifecyclePhase.STOP);
+			runningStops.remove(m, stopped);
+			stopped.complete(null);
+		}
+		log.trace(moduleMessage(m, "stopped"));
+	}
+
+
+	/**
+	 * Deinitialize a module whose stop timed out as soon as the stop finished,
+	 * so that the module can be initialized again.
+	 */
+	private void deinitAfterStop(final AModule m)
+	{
+		ModuleAction action = withThreadContext(LifecyclePhase.DEINIT, this::deinitModule);
+		CompletableFuture<Void> deinit = runningStops.getOrDefault(m, CompletableFuture.completedFuture(null))
+				.thenRunAsync(() -> {
+					try
+					{
+						action.apply(m);
+					} catch (Exception err)
+					{
+						log.error("Exception while deinitializing module: " + m, err);
+					}
+				}, lifecycleExecutor);
+		lateDeinits.put(m, deinit);
+		deinit.whenComplete((v, err) -> {
+			lateDeinits.remove(m, deinit);
+			if (err != null)
+			{
+				log.error("Could not deinitialize module: " + m, err);
+			}
+		});
+	}
+
+
+	/**
+	 * Wait for the deinitialization of modules whose stop timed out before, so that they can be initialized again.
+	 */
+	private void awaitLateDeinits(final List<AModule> modules)
+	{
+		for (AModule m : modules)
+		{
+			CompletableFuture<Void> deinit = lateDeinits.get(m);
+			if (deinit == null)
+			{
+				continue;
+			}
+			try
+			{
+				deinit.get(moduleStopTimeout.toMillis(), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException err)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException | TimeoutException err)
+			{
+				log.warn("Module " + m + " is still stopping", err);
+			}
+		}
+	}
+
+
+	private void deinitModules(final List<AModule> reversedModules)
+	{
+		for (AModule m : reversedModules)
+		{
+			try
+			{
+				deinitModule(m);
+			} catch (Exception err)
+			{
+				log.error("Exception while deinitializing module: " + m, err);
+			}
+		}
+	}
+
+
+	private void deinitModule(final AModule m)
+	{
+		if (m.getState() == ModuleState.CONSTRUCTED || m.getState() == ModuleState.DEINITIALIZED)
+		{
+			return;
+		}
+		LifecycleStopwatch stopwatch = LifecycleStopwatch.start();
+		if (!m.setState(ModuleState.DEINITIALIZING))
+		{
+			return;
+		}
+		m.getExecutors().open();
+		try
+		{
+			m.deinitModule();
+			m.setState(ModuleState.DEINITIALIZED);
+		} catch (RuntimeException err)
+		{
+			m.setState(ModuleState.FAILED);
+			throw err;
+		} finally
+		{
+			// modules that were never started still hold the subscriptions of their init
+			eventBus.release(m.getId());
+			m.getExecutors().shutdown(moduleStopTimeout);
+			stopwatch.stop(getModuleTiming(m.getId()), LifecyclePhase.DEINIT);
+		}
+		log.trace(moduleMessage(m, "deinitialized"));
+	}
+
+
+	/**
+	 * @return the modules whose action timed out and may still be running
+	 */
+	private Set<AModule> runInReverseDependencyOrder(List<AModule> reversedModules, LifecyclePhase phase,
+			ModuleAction action, String actionName)
+	{
+		Map<AModule, List<AModule>> dependents = new HashMap<>();
+		for (AModule m : reversedModules)
+		{
+			dependents.putIfAbsent(m, new ArrayList<>());
+			getDependencyModules(m).forEach(d -> dependents.computeIfAbsent(d, k -> new ArrayList<>()).add(m));
+		}
+
+		try
+		{
+			return new DependencyScheduler(reversedModules, dependents::get).runTolerant(lifecycleExecutor,
+					withThreadContext(phase, action), moduleStopTimeout, (m, err) -> logShutdownError(m, actionName, err));
+		} catch (InterruptedException err)
+		{
+			Thread.currentThread().interrupt();
+			log.error("Interrupted while " + actionName + " modules", err);
+			return Collections.emptySet();
+		}
+	}
+
+
+	private void logShutdownError(AModule m, String actionName, Throwable err)
+	{
+		if (err instanceof TimeoutException)
+		{
+			log.error("Timeout after " + moduleStopTimeout.toMillis() + "ms while " + actionName + " module: " + m);
+		} else
+		{
+			log.error("Exception while " + actionName + " module: " + m, err);
+		}
+	}
+
+
+	private ModuleTiming getModuleTiming(Class<? extends AModule> moduleId)
+	{
+		return moduleTimings.computeIfAbsent(moduleId, ModuleTiming::new);
+	}
+
+
+	/**
+	 * Creates a report with the measured wall-clock and CPU times of the lifecycle phases of all loaded modules
+	 * and the critical path of the startup.
+	 *
+	 * @return a snapshot of the current lifecycle times
+	 */
+	public LifecycleReport getLifecycleReport()
+	{
+		return LifecycleReport.create(registry.getGraph(), moduleTimings);
+	}
+
+
+	/**
+	 * Returns a list with all loaded modules.
+	 * Lazy modules are only included after they were created.
+	 * The list is an unmodifiable snapshot that is not affected by later loads, so it can be iterated safely
+	 * while modules are (re-)loaded concurrently.
+	 *
+	 * @return all modules, each after its dependencies
+	 */
+	public List<AModule> getModules()
+	{
+		return registry.getModules();
+	}
+
+
+	/**
+	 * Gets a module from current module-list.
+	 * A lazy module is created on the first call, together with its lazy dependencies.
+	 * If the modules are active, it is also initialized and started.
+	 *
+	 * @param moduleId the type of the model
+	 * @return the instance of the module for the id
+	 * @throws ModuleNotFoundException if the module couldn't be found or a lazy module could not be created
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AModule> T getModule(Class<T> moduleId)
+	{
+		AModule aModule = registry.get(moduleId);
+		if (aModule == null)
+		{
+			aModule = getLazyModule(moduleId);
+		}
+		if (aModule == null)
+		{
+			throw new ModuleNotFoundException(moduleMessage(moduleId, "not found"));
+		}
+		return (T) aModule;
+	}
+
+
+	/**
+	 * Gets a module from current module-list.
+	 *
+	 * @param moduleId the type of the model
+	 * @return the instance of the module for the id
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AModule> Optional<T> getModuleOpt(Class<T> moduleId)
+	{
+		final AModule aModule = registry.get(moduleId);
+		return Optional.ofNullable((T) (aModule == null ? getLazyModule(moduleId) : aModule));
+	}
+
+
+	/**
+	 * Gets a handle to a module for allocation-free access on hot paths.
+	 * The handle can be requested before the module is loaded and is re-bound on each {@link #loadModules(String)}.
+	 * A lazy module is created on the first access through the handle, not when the handle is requested.
+	 *
+	 * @param moduleId the type of the module
+	 * @return the handle for the module, which is the same instance for each call with the same id
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AModule> ModuleHandle<T> getModuleHandle(Class<T> moduleId)
+	{
+		// hold the registry lock, so that a new handle is not missed by a concurrent publish
+		synchronized (registryLock)
+		{
+			return (ModuleHandle<T>) moduleHandles.computeIfAbsent(moduleId, id -> {
+				ModuleHandle<T> handle = new ModuleHandle<>(moduleId, this::getModule);
+				handle.bind(registry.get(moduleId));
+				return handle;
+			});
+		}
+	}
+
+
+	/**
+	 * Wait for a module to reach a lifecycle state without blocking.
+	 * The module does not have to be loaded yet; a lazy module is not created by this method.
+	 * The future is completed on the lifecycle thread, so use the async variants of {@link CompletableFuture}
+	 * for longer running follow-up work.
+	 *
+	 * @param moduleId the module id or implementation class
+	 * @param state the state to wait for
+	 * @return a future that completes with the module when it is in the given state,
+	 *         or fails if the module reaches {@link ModuleState#FAILED} instead
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AModule> CompletableFuture<T> awaitState(Class<T> moduleId, ModuleState state)
+	{
+		AModule module = registry.get(moduleId);
+		if (module != null)
+		{
+			return (CompletableFuture<T>) module.awaitState(state);
+		}
+		CompletableFuture<AModule> pending = pendingModules.computeIfAbsent(moduleId, id -> new CompletableFuture<>());
+		// the module may have been published concurrently
+		module = registry.get(moduleId);
+		if (module != null && pendingModules.remove(moduleId, pending))
+		{
+			pending.complete(module);
+		}
+		return (CompletableFuture<T>) pending.thenCompose(m -> m.awaitState(state));
+	}
+
+
+	/**
+	 * @return the dependency graph of the loaded modules; lazy modules are included once they are created
+	 */
+	public ModuleGraph getModuleGraph()
+	{
+		return registry.getGraph();
+	}
+
+
+	/**
+	 * @return the event bus for communication between the modules
+	 */
+	public EventBus getEventBus()
+	{
+		return eventBus;
+	}
+
+
+	/**
+	 * Check whether a module depends directly or transitively on another module in the current configuration.
+	 *
+	 * @param moduleId the id or implementation of the depending module
+	 * @param dependencyId the id or implementation of the dependency
+	 * @return true, if the module depends on the dependency
+	 */
+	public boolean dependsOn(final Class<? extends AModule> moduleId, final Class<? extends AModule> dependencyId)
+	{
+		ModuliBlueprint currentBlueprint = blueprint;
+		return currentBlueprint != null
+				&& currentBlueprint.dependsOn(toModuleId(moduleId), toModuleId(dependencyId));
+	}
+
+
+	private String toModuleId(final Class<? extends AModule> moduleIdOrImplementation)
+	{
+		AModule module = registry.get(moduleIdOrImplementation);
+		return module == null ? moduleIdOrImplementation.getName() : module.getId().getName();
+	}
+
+
+	/**
+	 * @return the metrics of all running module executors by module id
+	 */
+	public Map<Class<? extends AModule>, List<ExecutorMetrics>> getExecutorMetrics()
+	{
+		Map<Class<? extends AModule>, List<ExecutorMetrics>> metrics = new LinkedHashMap<>();
+		for (AModule m : registry.getModules())
+		{
+			List<ExecutorMetrics> moduleMetrics = m.getExecutors().getMetrics();
+			if (!moduleMetrics.isEmpty())
+			{
+				metrics.put(m.getId(), moduleMetrics);
+			}
+		}
+		return metrics;
+	}
+
+
+	/**
+	 * @return the health of all loaded modules by module id
+	 */
+	public Map<Class<? extends AModule>, ModuleHealth> getModuleHealth()
+	{
+		Map<Class<? extends AModule>, ModuleHealth> health = new LinkedHashMap<>();
+		for (AModule m : registry.getModules())
+		{
+			health.put(m.getId(), m.getHealth());
+		}
+		return health;
+	}
+
+
+	/**
+	 * Check the health of all started modules now, independent of the watchdog interval.
+	 * Health observers are notified about changes, like for the periodic checks.
+	 *
+	 * @return the status of each started module
+	 */
+	public Map<Class<? extends AModule>, HealthStatus> checkModuleHealth()
+	{
+		return watchdog.check();
+	}
+
+
+	/**
+	 * Add an observer for health changes of the modules, detected by the watchdog.
+	 *
+	 * @param observer the observer
+	 */
+	public void addHealthObserver(final IModuleHealthObserver observer)
+	{
+		watchdog.addObserver(observer);
+	}
+
+
+	/**
+	 * Remove an observer for health changes.
+	 *
+	 * @param observer the observer
+	 */
+	public void removeHealthObserver(final IModuleHealthObserver observer)
+	{
+		watchdog.removeObserver(observer);
+	}
+
+
+	/**
+	 * @return the resource usage of all loaded modules at the last sample by module id
+	 */
+	public Map<Class<? extends AModule>, ResourceUsage> getResourceUsage()
+	{
+		Map<Class<? extends AModule>, ResourceUsage> usage = new LinkedHashMap<>();
+		for (AModule m : registry.getModules())
+		{
+			usage.put(m.getId(), m.getResources().getUsage());
+		}
+		return usage;
+	}
+
+
+	/**
+	 * Sample the resource usage of all loaded modules now, independent of the sampling interval.
+	 *
+	 * @return the new resource usage by module id
+	 */
+	public Map<Class<? extends AModule>, ResourceUsage> sampleResources()
+	{
+		Map<Class<? extends AModule>, ResourceUsage> usage = new LinkedHashMap<>();
+		for (AModule m : registry.getModules())
+		{
+			usage.put(m.getId(), m.getResources().sample());
+		}
+		return usage;
+	}
+
+
+	/**
+	 * Check whether a module is loaded.
+	 *
+	 * @param moduleId the Class of the module
+	 * @return if the module is loaded
+	 */
+	public boolean isModuleLoaded(Class<? extends AModule> moduleId)
+	{
+		return registry.contains(moduleId) || lazyModules.containsKey(moduleId);
+	}
+
+
+	private String moduleMessage(Object module, String message)
+	{
+		return "Module " + module + " " + message;
+	}
+
+
+	/**
+	 * The creation of a lazy module by a single thread, that other threads can wait for.
+	 */
+	private static final class LazyCreation
+	{
+		private final Thread thread = Thread.currentThread();
+		private final CompletableFuture<AModule> future = new CompletableFuture<>();
+
+
+		private AModule join()
+		{
+			try
+			{
+				return future.join();
+			} catch (CompletionException e)
+			{
+				throw new ModuleNotFoundException(e.getCause().getMessage(), e.getCause());
+			}
+		}
 	}
 }
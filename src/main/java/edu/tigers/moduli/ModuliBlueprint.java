@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.SubnodeConfiguration;
+
+import edu.tigers.moduli.config.CompiledConfigCache;
+import edu.tigers.moduli.config.CompiledModuleConfig;
+import edu.tigers.moduli.config.ConfigNode;
+import edu.tigers.moduli.config.ModuleDescriptor;
+import edu.tigers.moduli.config.PropertyBinder;
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * An immutable, pre-resolved module configuration that can be instantiated by many {@link Moduli} instances.
+ * Module classes, factories, dependencies and lazy modules are resolved and the properties are validated once,
+ * when the blueprint is created. Each instance then only constructs its own modules and binds their properties,
+ * so a blueprint is the cheapest way to run many isolated Moduli instances side by side in one JVM.
+ * <p>
+ * Instances only share state through static fields of the module classes,
+ * see {@link #findStaticState()} and {@link #requireIsolation()}.
+ * </p>
+ */
+public final class ModuliBlueprint
+{
+	private final CompiledModuleConfig config;
+	private final ModuleFactories factories;
+	private final List<ModuleTemplate> modules;
+	private final Map<String, ModuleTemplate> modulesById = new HashMap<>();
+
+
+	private ModuliBlueprint(final CompiledModuleConfig config, final ModuleFactories factories)
+			throws LoadModulesException
+	{
+		this.config = config;
+		this.factories = factories;
+		Set<String> lazyModuleIds = findLazyModules(config);
+		HierarchicalConfiguration configuration = new HierarchicalConfiguration();
+		configuration.setRootNode(config.getRoot().toConfigurationNode());
+		List<ModuleTemplate> templates = new ArrayList<>();
+		for (ModuleDescriptor descriptor : config.getModules())
+		{
+			ModuleTemplate template = createTemplate(descriptor, lazyModuleIds.contains(descriptor.getId()),
+					configuration);
+			templates.add(template);
+			modulesById.put(descriptor.getId(), template);
+		}
+		modules = Collections.unmodifiableList(templates);
+	}
+
+
+	/**
+	 * Load a blueprint from a configuration file, using the shared {@link CompiledConfigCache}
+	 * and the shared {@link ModuleFactories}.
+	 *
+	 * @param xmlFile (module-)configuration-file
+	 * @return the blueprint
+	 * @throws LoadModulesException if the configuration is invalid or a class can not be resolved
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public static ModuliBlueprint load(final String xmlFile) throws LoadModulesException, DependencyException
+	{
+		return of(CompiledConfigCache.shared().load(xmlFile), ModuleFactories.shared());
+	}
+
+
+	/**
+	 * @param config the compiled (module-)configuration
+	 * @param factories the factories for creating modules without reflection
+	 * @return the blueprint
+	 * @throws LoadModulesException if a class can not be resolved or the properties of a module are invalid
+	 */
+	public static ModuliBlueprint of(final CompiledModuleConfig config, final ModuleFactories factories)
+			throws LoadModulesException
+	{
+		return new ModuliBlueprint(config, factories);
+	}
+
+
+	/**
+	 * Find the modules that are marked as lazy and that are not required by any eager module.
+	 *
+	 * @param config the configuration
+	 * @return the ids of all modules that should be created on first access
+	 */
+	private static Set<String> findLazyModules(final CompiledModuleConfig config)
+	{
+		Set<String> eagerModuleIds = new HashSet<>();
+		Set<String> lazyModuleIds = new HashSet<>();
+		List<ModuleDescriptor> descriptors = config.getModules();
+		for (int i = descriptors.size() - 1; i >= 0; i--)
+		{
+			ModuleDescriptor descriptor = descriptors.get(i);
+			if (descriptor.isLazy() && !eagerModuleIds.contains(descriptor.getId()))
+			{
+				lazyModuleIds.add(descriptor.getId());
+			} else
+			{
+				eagerModuleIds.add(descriptor.getId());
+				eagerModuleIds.addAll(descriptor.getDependencies());
+			}
+		}
+		return lazyModuleIds;
+	}
+
+
+	private ModuleTemplate createTemplate(final ModuleDescriptor descriptor, final boolean lazy,
+			final HierarchicalConfiguration configuration) throws LoadModulesException
+	{
+		// lazy modules are not initialized before their first access
+		boolean initialize = !lazy;
+		Class<? extends AModule> id = resolveModuleClass(descriptor.getId(), initialize);
+		IModuleFactory factory = factories.get(descriptor.getImplementation());
+		Class<? extends AModule> implementation = factory == null
+				? resolveModuleClass(descriptor.getImplementation(), initialize)
+				: factory.getImplementation();
+		List<Class<? extends AModule>> dependencies = new ArrayList<>();
+		for (String dependency : descriptor.getDependencies())
+		{
+			dependencies.add(resolveModuleClass(dependency, initialize));
+		}
+
+		// validate the properties now, so that an invalid configuration is not detected per instance
+		ConfigNode properties = descriptor.getProperties();
+		PropertyBinder.bind(implementation, properties, properties == null
+				? null
+				: new SubnodeConfiguration(configuration, properties.toConfigurationNode()));
+		return new ModuleTemplate(descriptor, id, implementation, dependencies, factory, lazy);
+	}
+
+
+	private Class<? extends AModule> resolveModuleClass(final String className, final boolean initialize)
+			throws LoadModulesException
+	{
+		Class<? extends AModule> indexedClass = factories.findClass(className);
+		if (indexedClass != null)
+		{
+			return indexedClass;
+		}
+		try
+		{
+			return Class.forName(className, initialize, Moduli.class.getClassLoader()).asSubclass(AModule.class);
+		} catch (ClassNotFoundException e)
+		{
+			throw new LoadModulesException("Class in configuration can't be found: " + e.getMessage(), e);
+		} catch (ClassCastException e)
+		{
+			throw new LoadModulesException("Given implementation is not an instance of AModule: " + e.getMessage(), e);
+		}
+	}
+
+
+	/**
+	 * Create a new Moduli instance with the modules of this blueprint loaded.
+	 *
+	 * @return the new instance
+	 * @throws LoadModulesException if a module can not be constructed
+	 */
+	public Moduli instantiate() throws LoadModulesException
+	{
+		Moduli moduli = new Moduli();
+		moduli.loadModules(this);
+		return moduli;
+	}
+
+
+	/**
+	 * Find static fields of the module implementations (including their super classes below {@link AModule})
+	 * that may hold state which is shared between Moduli instances.
+	 * These are all non-final static fields and final static fields with arrays, collections, maps
+	 * or atomic variables. Constants and loggers are not reported.
+	 *
+	 * @return the fields, in module order
+	 */
+	public List<Field> findStaticState()
+	{
+		Set<Field> fields = new LinkedHashSet<>();
+		for (ModuleTemplate module : modules)
+		{
+			for (Class<?> c = module.getImplementation(); c != AModule.class; c = c.getSuperclass())
+			{
+				for (Field field : c.getDeclaredFields())
+				{
+					if (isSharedState(field))
+					{
+						fields.add(field);
+					}
+				}
+			}
+		}
+		return new ArrayList<>(fields);
+	}
+
+
+	private static boolean isSharedState(final Field field)
+	{
+		int modifiers = field.getModifiers();
+		if (!Modifier.isStatic(modifiers) || field.isSynthetic())
+		{
+			return false;
+		}
+		if (!Modifier.isFinal(modifiers))
+		{
+			return true;
+		}
+		Class<?> type = field.getType();
+		return type.isArray()
+				|| Collection.class.isAssignableFrom(type)
+				|| Map.class.isAssignableFrom(type)
+				|| "java.util.concurrent.atomic".equals(type.getPackageName());
+	}
+
+
+	/**
+	 * Check that the modules of this blueprint do not share state through static fields.
+	 *
+	 * @return this blueprint
+	 * @throws LoadModulesException if a module has static state, see {@link #findStaticState()}
+	 */
+	public ModuliBlueprint requireIsolation() throws LoadModulesException
+	{
+		List<Field> fields = findStaticState();
+		if (!fields.isEmpty())
+		{
+			throw new LoadModulesException("Modules share static state between Moduli instances: "
+					+ fields.stream()
+							.map(f -> f.getDeclaringClass().getName() + "." + f.getName())
+							.collect(Collectors.joining(", ")));
+		}
+		return this;
+	}
+
+
+	/**
+	 * @return the compiled configuration of this blueprint
+	 */
+	public CompiledModuleConfig getConfig()
+	{
+		return config;
+	}
+
+
+	/**
+	 * @return the factories used to resolve and create modules
+	 */
+	public ModuleFactories getModuleFactories()
+	{
+		return factories;
+	}
+
+
+	/**
+	 * @return all modules, each after its dependencies
+	 */
+	public List<ModuleTemplate> getModules()
+	{
+		return modules;
+	}
+
+
+	/**
+	 * @param moduleId the class name of a module id
+	 * @return the module or null, if there is no module with this id
+	 */
+	public ModuleTemplate getModule(final String moduleId)
+	{
+		return modulesById.get(moduleId);
+	}
+
+
+	/**
+	 * Check whether a module depends directly or transitively on another module.
+	 *
+	 * @param moduleId the class name of the depending module id
+	 * @param dependencyId the class name of the dependency id
+	 * @return true, if the module depends on the dependency
+	 */
+	public boolean dependsOn(final String moduleId, final String dependencyId)
+	{
+		Set<String> visited = new HashSet<>();
+		List<String> pending = new ArrayList<>(List.of(moduleId));
+		while (!pending.isEmpty())
+		{
+			ModuleTemplate module = modulesById.get(pending.remove(pending.size() - 1));
+			if (module == null)
+			{
+				continue;
+			}
+			for (String d : module.getDescriptor().getDependencies())
+			{
+				if (d.equals(dependencyId))
+				{
+					return true;
+				}
+				if (visited.add(d))
+				{
+					pending.add(d);
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * A resolved module of a blueprint.
+	 */
+	public static final class ModuleTemplate
+	{
+		private final ModuleDescriptor descriptor;
+		private final Class<? extends AModule> id;
+		private final Class<? extends AModule> implementation;
+		private final List<Class<? extends AModule>> dependencies;
+		private final IModuleFactory factory;
+		private final boolean lazy;
+
+
+		private ModuleTemplate(final ModuleDescriptor descriptor, final Class<? extends AModule> id,
+				final Class<? extends AModule> implementation, final List<Class<? extends AModule>> dependencies,
+				final IModuleFactory factory, final boolean lazy)
+		{
+			this.descriptor = descriptor;
+			this.id = id;
+			this.implementation = implementation;
+			this.dependencies = Collections.unmodifiableList(dependencies);
+			this.factory = factory;
+			this.lazy = lazy;
+		}
+
+
+		/**
+		 * @return a new instance of the implementation, created by the generated factory, if there is one
+		 * @throws IllegalArgumentException if the implementation can not be constructed
+		 */
+		AModule create()
+		{
+			if (factory != null)
+			{
+				return factory.create();
+			}
+			try
+			{
+				return ModuleConstructors.create(implementation);
+			} catch (Exception e)
+			{
+				throw new IllegalArgumentException("Error constructing module", e);
+			}
+		}
+
+
+		/**
+		 * @return the configuration of this module
+		 */
+		public ModuleDescriptor getDescriptor()
+		{
+			return descriptor;
+		}
+
+
+		/**
+		 * @return the module id
+		 */
+		public Class<? extends AModule> getId()
+		{
+			return id;
+		}
+
+
+		/**
+		 * @return the implementation class
+		 */
+		public Class<? extends AModule> getImplementation()
+		{
+			return implementation;
+		}
+
+
+		/**
+		 * @return the ids of the modules this module depends on
+		 */
+		public List<Class<? extends AModule>> getDependencies()
+		{
+			return dependencies;
+		}
+
+
+		/**
+		 * @return true, if the module is only created on first access, because no eager module depends on it
+		 */
+		public boolean isLazy()
+		{
+			return lazy;
+		}
+
+
+		@Override
+		public String toString()
+		{
+			return descriptor.toString();
+		}
+	}
+}
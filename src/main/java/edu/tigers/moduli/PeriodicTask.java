@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * A task that runs periodically on its own daemon thread, until it is stopped.
+ */
+final class PeriodicTask
+{
+	private static final Logger log = LogManager.getLogger(PeriodicTask.class.getName());
+
+	private final String threadName;
+	private final Runnable task;
+	private ScheduledExecutorService executor;
+
+
+	/**
+	 * @param threadName the name of the thread
+	 * @param task the task, exceptions are logged
+	 */
+	PeriodicTask(final String threadName, final Runnable task)
+	{
+		this.threadName = threadName;
+		this.task = task;
+	}
+
+
+	/**
+	 * Start running periodically. A running task is restarted with the new interval.
+	 * A zero or negative interval only stops the task.
+	 *
+	 * @param interval the time between two runs
+	 */
+	synchronized void start(final Duration interval)
+	{
+		stop();
+		if (interval.isZero() || interval.isNegative())
+		{
+			return;
+		}
+		ScheduledThreadPoolExecutor taskExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread thread = new Thread(r, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		taskExecutor.setRemoveOnCancelPolicy(true);
+		taskExecutor.scheduleWithFixedDelay(this::runSafe, interval.toNanos(), interval.toNanos(),
+				TimeUnit.NANOSECONDS);
+		executor = taskExecutor;
+	}
+
+
+	/**
+	 * Stop running periodically.
+	 */
+	synchronized void stop()
+	{
+		if (executor != null)
+		{
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+
+	/**
+	 * @return true, if the task runs periodically
+	 */
+	synchronized boolean isRunning()
+	{
+		return executor != null;
+	}
+
+
+	private void runSafe()
+	{
+		try
+		{
+			task.run();
+		} catch (RuntimeException e)
+		{
+			log.error("Exception in " + threadName, e);
+		}
+	}
+}
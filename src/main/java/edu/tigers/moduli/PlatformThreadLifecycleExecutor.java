@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Executes lifecycle actions on a pool of daemon platform threads.
+ * Idle threads are kept for a minute, so that consecutive lifecycle phases can reuse them.
+ */
+public class PlatformThreadLifecycleExecutor implements ILifecycleExecutor
+{
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final ExecutorService executor;
+
+
+	/**
+	 * Create an executor with an unbounded number of threads.
+	 */
+	public PlatformThreadLifecycleExecutor()
+	{
+		executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new LifecycleThreadFactory());
+	}
+
+
+	/**
+	 * Create an executor with a bounded number of threads. Further actions are queued.
+	 *
+	 * @param maxThreads the maximum number of threads
+	 */
+	public PlatformThreadLifecycleExecutor(final int maxThreads)
+	{
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new LifecycleThreadFactory());
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+
+	@Override
+	public void execute(final Runnable command)
+	{
+		executor.execute(command);
+	}
+
+
+	@Override
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+
+	private static class LifecycleThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+
+		@Override
+		public Thread newThread(final Runnable r)
+		{
+			Thread thread = new Thread(r, "Moduli-lifecycle-" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.time.Duration;
+
+
+/**
+ * A sample of the CPU time and heap allocations of the threads of a module, see {@link ModuleResources}.
+ * Values that are not supported by the JVM are -1.
+ */
+public final class ResourceUsage
+{
+	static final ResourceUsage NONE = new ResourceUsage(0, 0, 0, 0, 0);
+	static final ResourceUsage UNSUPPORTED = new ResourceUsage(0, -1, -1, -1, -1);
+
+	private final int threads;
+	private final long cpuTimeNanos;
+	private final long allocatedBytes;
+	private final double cpuLoad;
+	private final double allocationRate;
+
+
+	ResourceUsage(final int threads, final long cpuTimeNanos, final long allocatedBytes, final double cpuLoad,
+			final double allocationRate)
+	{
+		this.threads = threads;
+		this.cpuTimeNanos = cpuTimeNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.cpuLoad = cpuLoad;
+		this.allocationRate = allocationRate;
+	}
+
+
+	/**
+	 * @return the number of live threads that are registered for the module
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+
+	/**
+	 * @return the total CPU time of all threads that were registered for the module
+	 */
+	public Duration getCpuTime()
+	{
+		return Duration.ofNanos(cpuTimeNanos);
+	}
+
+
+	/**
+	 * @return the total CPU time in nanoseconds
+	 */
+	public long getCpuTimeNanos()
+	{
+		return cpuTimeNanos;
+	}
+
+
+	/**
+	 * @return the total number of bytes allocated on the heap by all threads that were registered for the module
+	 */
+	public long getAllocatedBytes()
+	{
+		return allocatedBytes;
+	}
+
+
+	/**
+	 * @return the CPU time since the previous sample relative to the elapsed time, 1 means one fully used CPU
+	 */
+	public double getCpuLoad()
+	{
+		return cpuLoad;
+	}
+
+
+	/**
+	 * @return the allocated bytes per second since the previous sample
+	 */
+	public double getAllocationRate()
+	{
+		return allocationRate;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		if (cpuTimeNanos < 0)
+		{
+			return "threads=" + threads + " (CPU time and allocations not supported)";
+		}
+		return String.format("threads=%d cpu=%.1fms (%.1f%%) allocated=%.1fMB (%.1fMB/s)", threads,
+				cpuTimeNanos / 1e6, cpuLoad * 100, allocatedBytes / 1e6, allocationRate / 1e6);
+	}
+}
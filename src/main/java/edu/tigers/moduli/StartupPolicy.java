@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+/**
+ * How {@link Moduli#startModules()} reacts to a module that fails to initialize or start.
+ */
+public enum StartupPolicy
+{
+	/** abort the startup with an exception on the first failure */
+	FAIL_FAST,
+	/**
+	 * skip all modules that depend on a failed module, roll them back and keep the independent modules running
+	 */
+	DEGRADED,
+}
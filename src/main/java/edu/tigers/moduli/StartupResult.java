@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The outcome of {@link Moduli#startModules()}.
+ * With {@link StartupPolicy#DEGRADED}, it lists the modules that failed and the modules that were not started,
+ * because they depend on a failed module.
+ */
+public class StartupResult
+{
+	private final Map<Class<? extends AModule>, Throwable> failedModules;
+	private final List<Class<? extends AModule>> skippedModules;
+
+
+	/**
+	 * @param failedModules the failures by module id, in startup order
+	 * @param skippedModules the ids of the skipped modules, in startup order
+	 */
+	StartupResult(final Map<Class<? extends AModule>, Throwable> failedModules,
+			final List<Class<? extends AModule>> skippedModules)
+	{
+		this.failedModules = Collections.unmodifiableMap(failedModules);
+		this.skippedModules = Collections.unmodifiableList(skippedModules);
+	}
+
+
+	/**
+	 * @return the failures by module id
+	 */
+	public Map<Class<? extends AModule>, Throwable> getFailedModules()
+	{
+		return failedModules;
+	}
+
+
+	/**
+	 * @return the ids of the modules that were not started or rolled back, because a dependency failed
+	 */
+	public List<Class<? extends AModule>> getSkippedModules()
+	{
+		return skippedModules;
+	}
+
+
+	/**
+	 * @return true, if all modules were started
+	 */
+	public boolean isComplete()
+	{
+		return failedModules.isEmpty() && skippedModules.isEmpty();
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "StartupResult{failed=" + failedModules.keySet() + ", skipped=" + skippedModules + "}";
+	}
+}
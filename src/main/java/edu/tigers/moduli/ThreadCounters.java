@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+
+/**
+ * Reads the CPU time and heap allocations of threads with the extended {@link ThreadMXBean} of the JDK.
+ * This is the only class that accesses <code>com.sun.management</code>, which is missing on JVMs without the module
+ * <code>jdk.management</code>. It is loaded on first use, see {@link ModuleResources#isSupported()}.
+ */
+final class ThreadCounters
+{
+	private static final ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+
+	private ThreadCounters()
+	{
+	}
+
+
+	private static ThreadMXBean findThreadMXBean()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof ThreadMXBean)
+		{
+			return (ThreadMXBean) bean;
+		}
+		return null;
+	}
+
+
+	/**
+	 * @return true, if the JVM can measure the CPU time and allocations of other threads
+	 */
+	static boolean isSupported()
+	{
+		return THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadCpuTimeSupported()
+				&& THREAD_MX_BEAN.isThreadAllocatedMemorySupported();
+	}
+
+
+	static long getCpuTime(final long id)
+	{
+		return THREAD_MX_BEAN.getThreadCpuTime(id);
+	}
+
+
+	static long[] getCpuTime(final long[] ids)
+	{
+		return THREAD_MX_BEAN.getThreadCpuTime(ids);
+	}
+
+
+	static long getAllocatedBytes(final long id)
+	{
+		return THREAD_MX_BEAN.getThreadAllocatedBytes(id);
+	}
+
+
+	static long[] getAllocatedBytes(final long[] ids)
+	{
+		return THREAD_MX_BEAN.getThreadAllocatedBytes(ids);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * Executes each lifecycle action on a new virtual thread, so that many modules with blocking I/O
+ * can be initialized and started concurrently at low cost.
+ * Virtual threads require Java 21. They are looked up reflectively, so that Moduli still runs on older JVMs,
+ * see {@link #isAvailable()}.
+ */
+public class VirtualThreadLifecycleExecutor implements ILifecycleExecutor
+{
+	private static final MethodHandle NEW_VIRTUAL_THREAD_FACTORY = findVirtualThreadFactory();
+
+	private final ThreadFactory threadFactory;
+
+
+	/**
+	 * @throws UnsupportedOperationException if the JVM does not support virtual threads
+	 */
+	public VirtualThreadLifecycleExecutor()
+	{
+		threadFactory = newThreadFactory("Moduli-lifecycle-");
+	}
+
+
+	/**
+	 * @param namePrefix the prefix of the thread names, followed by a counter
+	 * @return a factory for virtual threads
+	 * @throws UnsupportedOperationException if the JVM does not support virtual threads
+	 */
+	static ThreadFactory newThreadFactory(final String namePrefix)
+	{
+		if (NEW_VIRTUAL_THREAD_FACTORY == null)
+		{
+			throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+		}
+		try
+		{
+			return (ThreadFactory) NEW_VIRTUAL_THREAD_FACTORY.invoke(namePrefix);
+		} catch (RuntimeException | Error e)
+		{
+			throw e;
+		} catch (Throwable e)
+		{
+			throw new IllegalStateException("Could not create virtual thread factory", e);
+		}
+	}
+
+
+	/**
+	 * @return true, if the JVM supports virtual threads
+	 */
+	public static boolean isAvailable()
+	{
+		return NEW_VIRTUAL_THREAD_FACTORY != null;
+	}
+
+
+	@Override
+	public void execute(final Runnable command)
+	{
+		threadFactory.newThread(command).start();
+	}
+
+
+	/**
+	 * The handle is invoked once, because preview releases provide the methods, but throw
+	 * an {@link UnsupportedOperationException} without <code>--enable-preview</code>.
+	 *
+	 * @return a handle for <code>prefix -&gt; Thread.ofVirtual().name(prefix, 1).factory()</code> or null
+	 */
+	private static MethodHandle findVirtualThreadFactory()
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(
+					virtualBuilderClass));
+			MethodHandle name = MethodHandles.insertArguments(lookup.findVirtual(virtualBuilderClass, "name",
+					MethodType.methodType(virtualBuilderClass, String.class, long.class)), 2, 1L);
+			MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(
+					ThreadFactory.class));
+			MethodHandle newFactory = MethodHandles.filterReturnValue(
+					MethodHandles.collectArguments(name, 0, ofVirtual),
+					factory.asType(MethodType.methodType(ThreadFactory.class, virtualBuilderClass)));
+			newFactory.invoke("Moduli-probe-");
+			return newFactory;
+		} catch (Throwable e)
+		{
+			return null;
+		}
+	}
+}
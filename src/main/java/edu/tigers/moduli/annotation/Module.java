@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import edu.tigers.moduli.AModule;
+
+
+/**
+ * Declares a module implementation for the compile-time module index.
+ * The {@link ModuleProcessor} generates a factory for each annotated class, so that Moduli can create the module
+ * without reflection, and registers the factory for the {@link java.util.ServiceLoader}.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Module
+{
+	/**
+	 * @return the module id, the annotated class by default
+	 */
+	Class<? extends AModule> id() default AModule.class;
+
+
+	/**
+	 * @return the ids of the modules this module depends on
+	 */
+	Class<? extends AModule>[] dependsOn() default {};
+}
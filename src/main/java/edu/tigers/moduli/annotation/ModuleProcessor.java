@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Generates a factory for each class annotated with {@link Module} and registers all factories in
+ * <code>META-INF/services/edu.tigers.moduli.IModuleFactory</code>.
+ * The factories create modules with a plain constructor call, so no reflection is required at runtime.
+ */
+@SupportedAnnotationTypes(ModuleProcessor.MODULE_ANNOTATION)
+public class ModuleProcessor extends AbstractProcessor
+{
+	static final String MODULE_ANNOTATION = "edu.tigers.moduli.annotation.Module";
+	private static final String MODULE_CLASS = "edu.tigers.moduli.AModule";
+	private static final String FACTORY_INTERFACE = "edu.tigers.moduli.IModuleFactory";
+	private static final String FACTORY_SUFFIX = "_ModuleFactory";
+	private static final String SERVICE_FILE = "META-INF/services/" + FACTORY_INTERFACE;
+
+	private final Set<String> factories = new TreeSet<>();
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+	{
+		TypeElement annotation = processingEnv.getElementUtils().getTypeElement(MODULE_ANNOTATION);
+		if (annotation != null)
+		{
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+			{
+				processModule(element);
+			}
+		}
+		if (roundEnv.processingOver() && !factories.isEmpty())
+		{
+			writeServiceFile();
+		}
+		return true;
+	}
+
+
+	private void processModule(final Element element)
+	{
+		if (element.getKind() != ElementKind.CLASS || !isValidModule((TypeElement) element))
+		{
+			return;
+		}
+		TypeElement module = (TypeElement) element;
+		AnnotationMirror mirror = getModuleAnnotation(module);
+		String id = module.getQualifiedName().toString();
+		List<String> dependencies = new ArrayList<>();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
+				.entrySet())
+		{
+			String name = entry.getKey().getSimpleName().toString();
+			if ("id".equals(name))
+			{
+				id = typeName((TypeMirror) entry.getValue().getValue());
+			} else if ("dependsOn".equals(name))
+			{
+				@SuppressWarnings("unchecked")
+				List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
+				values.forEach(v -> dependencies.add(typeName((TypeMirror) v.getValue())));
+			}
+		}
+		if (MODULE_CLASS.equals(id))
+		{
+			id = module.getQualifiedName().toString();
+		}
+		writeFactory(module, id, dependencies);
+	}
+
+
+	private boolean isValidModule(final TypeElement module)
+	{
+		TypeMirror moduleType = processingEnv.getElementUtils().getTypeElement(MODULE_CLASS).asType();
+		String error = null;
+		if (!processingEnv.getTypeUtils().isAssignable(module.asType(), moduleType))
+		{
+			error = "must extend " + MODULE_CLASS;
+		} else if (module.getModifiers().contains(Modifier.ABSTRACT))
+		{
+			error = "must not be abstract";
+		} else if (!module.getModifiers().contains(Modifier.PUBLIC)
+				|| module.getNestingKind() == NestingKind.MEMBER && !module.getModifiers().contains(Modifier.STATIC))
+		{
+			error = "must be a public top level or static nested class";
+		} else if (ElementFilter.constructorsIn(module.getEnclosedElements()).stream()
+				.noneMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC)))
+		{
+			error = "needs a public no-arg constructor";
+		}
+		if (error != null)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@Module class " + error, module);
+			return false;
+		}
+		return true;
+	}
+
+
+	private AnnotationMirror getModuleAnnotation(final TypeElement module)
+	{
+		for (AnnotationMirror mirror : module.getAnnotationMirrors())
+		{
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+					.contentEquals(MODULE_ANNOTATION))
+			{
+				return mirror;
+			}
+		}
+		throw new IllegalStateException("No @Module annotation on " + module);
+	}
+
+
+	private String typeName(final TypeMirror type)
+	{
+		return ((TypeElement) processingEnv.getTypeUtils().asElement(type)).getQualifiedName().toString();
+	}
+
+
+	private void writeFactory(final TypeElement module, final String id, final List<String> dependencies)
+	{
+		String packageName = processingEnv.getElementUtils().getPackageOf(module).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(module).toString();
+		String simpleName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+				.replace('$', '_') + FACTORY_SUFFIX;
+		String factoryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		String implementation = module.getQualifiedName().toString();
+
+		StringBuilder dependencyList = new StringBuilder();
+		for (String dependency : dependencies)
+		{
+			dependencyList.append(dependencyList.length() == 0 ? "" : ", ").append(dependency).append(".class");
+		}
+
+		try (Writer writer = processingEnv.getFiler().createSourceFile(factoryName, module).openWriter())
+		{
+			if (!packageName.isEmpty())
+			{
+				writer.write("package " + packageName + ";\n\n");
+			}
+			writer.write("/** Generated by " + ModuleProcessor.class.getName() + " */\n");
+			writer.write("public final class " + simpleName + " implements " + FACTORY_INTERFACE + "\n{\n");
+			writer.write("\t@Override\n\tpublic Class<? extends " + MODULE_CLASS + "> getId()\n\t{\n");
+			writer.write("\t\treturn " + id + ".class;\n\t}\n\n\n");
+			writer.write("\t@Override\n\tpublic Class<? extends " + MODULE_CLASS + "> getImplementation()\n\t{\n");
+			writer.write("\t\treturn " + implementation + ".class;\n\t}\n\n\n");
+			writer.write("\t@Override\n\tpublic java.util.List<Class<? extends " + MODULE_CLASS
+					+ ">> getDependencies()\n\t{\n");
+			writer.write("\t\treturn java.util.List.of(" + dependencyList + ");\n\t}\n\n\n");
+			writer.write("\t@Override\n\tpublic " + MODULE_CLASS + " create()\n\t{\n");
+			writer.write("\t\treturn new " + implementation + "();\n\t}\n}\n");
+		} catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write module factory: " + e.getMessage(), module);
+			return;
+		}
+		factories.add(factoryName);
+	}
+
+
+	/**
+	 * Write the service file with the factories of this compilation and the still existing factories of the
+	 * existing service file, so that an incremental compilation of some modules keeps the other modules.
+	 */
+	private void writeServiceFile()
+	{
+		readServiceFile().stream()
+				.filter(factory -> processingEnv.getElementUtils().getTypeElement(factory) != null)
+				.forEach(factories::add);
+		try (Writer writer = processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE)
+				.openWriter())
+		{
+			for (String factory : factories)
+			{
+				writer.write(factory + "\n");
+			}
+		} catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write module index: " + e.getMessage());
+		}
+	}
+
+
+	private List<String> readServiceFile()
+	{
+		List<String> existing = new ArrayList<>();
+		try
+		{
+			FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+			try (BufferedReader reader = new BufferedReader(resource.openReader(true)))
+			{
+				for (String line = reader.readLine(); line != null; line = reader.readLine())
+				{
+					int comment = line.indexOf('#');
+					String factory = (comment < 0 ? line : line.substring(0, comment)).trim();
+					if (!factory.isEmpty())
+					{
+						existing.add(factory);
+					}
+				}
+			}
+		} catch (IOException e)
+		{
+			// there is no service file from a previous compilation
+		}
+		return existing;
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.ConfigurationUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * A cache for compiled module configurations, keyed by the hash of the XML content.
+ * The most recently used compiled configurations are kept in memory. If a directory is given, they are also
+ * stored there, so that they survive restarts of the JVM.
+ */
+public class CompiledConfigCache
+{
+	private static final Logger log = LogManager.getLogger(CompiledConfigCache.class.getName());
+	/** the default number of compiled configurations kept in memory */
+	public static final int DEFAULT_MAX_ENTRIES = 16;
+	private static final CompiledConfigCache SHARED = new CompiledConfigCache(null);
+	private static final String FILE_SUFFIX = ".moduli";
+
+	private final Map<String, CompiledModuleConfig> compiledConfigs;
+	private final Path directory;
+
+
+	/**
+	 * @param directory the directory to store compiled configurations in or null to keep them in memory only
+	 */
+	public CompiledConfigCache(final Path directory)
+	{
+		this(directory, DEFAULT_MAX_ENTRIES);
+	}
+
+
+	/**
+	 * @param directory the directory to store compiled configurations in or null to keep them in memory only
+	 * @param maxEntries the number of compiled configurations to keep in memory, the least recently used are
+	 *           evicted first
+	 */
+	public CompiledConfigCache(final Path directory, final int maxEntries)
+	{
+		if (maxEntries < 1)
+		{
+			throw new IllegalArgumentException("The cache must keep at least one entry, but got " + maxEntries);
+		}
+		this.directory = directory;
+		compiledConfigs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, CompiledModuleConfig> eldest)
+			{
+				return size() > maxEntries;
+			}
+		});
+	}
+
+
+	/**
+	 * @return an in-memory cache with {@link #DEFAULT_MAX_ENTRIES} that is shared within the JVM
+	 */
+	public static CompiledConfigCache shared()
+	{
+		return SHARED;
+	}
+
+
+	/**
+	 * Load the compiled configuration for a config file.
+	 * The file is only parsed, if its content has not been compiled before.
+	 *
+	 * @param xmlFile the file name, path or classpath resource of the XML configuration
+	 * @return the compiled configuration
+	 * @throws LoadModulesException if the configuration can not be read or is invalid
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public CompiledModuleConfig load(final String xmlFile) throws LoadModulesException, DependencyException
+	{
+		byte[] content = read(xmlFile);
+		String hash = CompiledModuleConfig.hash(content);
+
+		CompiledModuleConfig compiled = compiledConfigs.get(hash);
+		if (compiled != null)
+		{
+			return compiled;
+		}
+
+		compiled = loadFromDirectory(hash);
+		if (compiled == null)
+		{
+			compiled = CompiledModuleConfig.compile(content);
+			storeInDirectory(compiled);
+		}
+		compiledConfigs.put(hash, compiled);
+		return compiled;
+	}
+
+
+	/**
+	 * @return the number of compiled configurations in memory
+	 */
+	public int size()
+	{
+		return compiledConfigs.size();
+	}
+
+
+	/**
+	 * Remove all compiled configurations from memory.
+	 */
+	public void clear()
+	{
+		compiledConfigs.clear();
+	}
+
+
+	private byte[] read(final String xmlFile) throws LoadModulesException
+	{
+		URL url = ConfigurationUtils.locate(xmlFile);
+		if (url == null)
+		{
+			throw new LoadModulesException("Configuration contains errors: Cannot locate configuration source "
+					+ xmlFile);
+		}
+		try (InputStream in = url.openStream())
+		{
+			return in.readAllBytes();
+		} catch (IOException e)
+		{
+			throw new LoadModulesException("Configuration contains errors: " + e.getMessage(), e);
+		}
+	}
+
+
+	private CompiledModuleConfig loadFromDirectory(final String hash)
+	{
+		if (directory == null)
+		{
+			return null;
+		}
+		Path file = directory.resolve(hash + FILE_SUFFIX);
+		if (!Files.isRegularFile(file))
+		{
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			return CompiledModuleConfig.read(in);
+		} catch (IOException e)
+		{
+			log.warn("Could not read compiled module config " + file + ", compiling it again", e);
+			return null;
+		}
+	}
+
+
+	private void storeInDirectory(final CompiledModuleConfig compiled)
+	{
+		if (directory == null)
+		{
+			return;
+		}
+		try
+		{
+			Files.createDirectories(directory);
+			Path tmpFile = Files.createTempFile(directory, compiled.getHash(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile))))
+			{
+				compiled.write(out);
+			}
+			Files.move(tmpFile, directory.resolve(compiled.getHash() + FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e)
+		{
+			log.warn("Could not store compiled module config in " + directory, e);
+		}
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.XMLConfiguration;
+
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * A parsed and resolved module configuration.
+ * It contains the complete configuration tree and the module descriptors in topological order,
+ * so that modules can be created from it without parsing XML or resolving the dependency graph again.
+ */
+public final class CompiledModuleConfig
+{
+	private static final int MAGIC = 0x4d4f4443;
+	private static final int FORMAT_VERSION = 2;
+
+	private final String hash;
+	private final ConfigNode root;
+	private final List<ModuleDescriptor> modules;
+
+
+	private CompiledModuleConfig(final String hash, final ConfigNode root, final List<ModuleDescriptor> modules)
+	{
+		this.hash = hash;
+		this.root = root;
+		this.modules = Collections.unmodifiableList(modules);
+	}
+
+
+	/**
+	 * Parse a module configuration and order the modules by their dependencies.
+	 *
+	 * @param xml the content of the XML configuration
+	 * @return the compiled configuration
+	 * @throws LoadModulesException if the configuration is invalid
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public static CompiledModuleConfig compile(final byte[] xml) throws LoadModulesException, DependencyException
+	{
+		XMLConfiguration xmlConfig = new XMLConfiguration();
+		try
+		{
+			xmlConfig.load(new ByteArrayInputStream(xml));
+		} catch (ConfigurationException e)
+		{
+			throw new LoadModulesException("Configuration contains errors: " + e.getMessage(), e);
+		}
+		ConfigNode root = ConfigNode.of(xmlConfig.getRootNode());
+
+		List<ModuleDescriptor> configOrder = new ArrayList<>();
+		for (ConfigNode module : root.getChildren("module"))
+		{
+			configOrder.add(createDescriptor(module));
+		}
+		return create(hash(xml), root, configOrder);
+	}
+
+
+	/**
+	 * Create a configuration from module descriptors without parsing XML and order the modules by their dependencies.
+	 *
+	 * @param root the root node of the configuration with the global settings
+	 * @param modules the module descriptors in configuration order
+	 * @return the compiled configuration
+	 * @throws LoadModulesException if two modules have the same id
+	 * @throws DependencyException if the dependencies can not be resolved
+	 */
+	public static CompiledModuleConfig of(final ConfigNode root, final List<ModuleDescriptor> modules)
+			throws LoadModulesException, DependencyException
+	{
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(content))
+		{
+			root.write(out);
+			for (ModuleDescriptor module : modules)
+			{
+				module.write(out);
+			}
+		} catch (IOException e)
+		{
+			throw new IllegalStateException("Could not serialize module configuration", e);
+		}
+		return create(hash(content.toByteArray()), root, modules);
+	}
+
+
+	private static CompiledModuleConfig create(final String hash, final ConfigNode root,
+			final List<ModuleDescriptor> configOrder) throws LoadModulesException, DependencyException
+	{
+		Set<String> ids = new HashSet<>();
+		for (ModuleDescriptor descriptor : configOrder)
+		{
+			if (!ids.add(descriptor.getId()))
+			{
+				throw new LoadModulesException("module-id '" + descriptor.getId() + "' isn't unique.");
+			}
+		}
+		return new CompiledModuleConfig(hash, root, sortByDependencies(configOrder));
+	}
+
+
+	private static ModuleDescriptor createDescriptor(final ConfigNode module) throws LoadModulesException
+	{
+		String id = module.getAttribute("id");
+		if (id == null)
+		{
+			throw new LoadModulesException("Module without id: " + module);
+		}
+		ConfigNode implementation = module.getChild("implementation");
+		List<String> dependencies = new ArrayList<>();
+		module.getChildren("dependency").forEach(d -> dependencies.add(d.getValue()));
+		return new ModuleDescriptor(
+				id,
+				implementation == null ? id : implementation.getValue(),
+				dependencies,
+				module.getChild("properties"),
+				Boolean.parseBoolean(module.getAttribute("lazy")));
+	}
+
+
+	private static List<ModuleDescriptor> sortByDependencies(final List<ModuleDescriptor> configOrder)
+			throws DependencyException
+	{
+		Map<String, Integer> indices = new HashMap<>();
+		for (int i = 0; i < configOrder.size(); i++)
+		{
+			indices.put(configOrder.get(i).getId(), i);
+		}
+
+		DependencyGraph.Builder builder = DependencyGraph.builder(configOrder.size());
+		for (int i = 0; i < configOrder.size(); i++)
+		{
+			ModuleDescriptor module = configOrder.get(i);
+			for (String dependencyId : module.getDependencies())
+			{
+				Integer dependency = indices.get(dependencyId);
+				if (dependency == null)
+				{
+					throw new DependencyException(
+							"Dependency " + dependencyId + " is required by " + module + ", but not started.");
+				}
+				builder.addEdge(i, dependency);
+			}
+		}
+
+		DependencyGraph dependencyGraph = builder.build();
+		if (!dependencyGraph.isAcyclic())
+		{
+			throw new DependencyException("Cycle in dependencies: " + dependencyGraph.findCycles().stream()
+					.map(cycle -> Arrays.stream(cycle).mapToObj(configOrder::get).map(ModuleDescriptor::getId)
+							.collect(Collectors.joining(", ", "[", "]")))
+					.collect(Collectors.joining(", ")));
+		}
+
+		List<ModuleDescriptor> ordered = new ArrayList<>(configOrder.size());
+		for (int i : dependencyGraph.getOrder())
+		{
+			ordered.add(configOrder.get(i));
+		}
+		return ordered;
+	}
+
+
+	/**
+	 * @param content some content
+	 * @return the hex encoded SHA-256 hash of the content
+	 */
+	public static String hash(final byte[] content)
+	{
+		try
+		{
+			StringBuilder sb = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-256").digest(content))
+			{
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+
+	/**
+	 * Write this configuration in binary form.
+	 *
+	 * @param out the output
+	 * @throws IOException on write errors
+	 */
+	public void write(final DataOutput out) throws IOException
+	{
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		ConfigNode.writeString(out, hash);
+		root.write(out);
+		out.writeInt(modules.size());
+		for (ModuleDescriptor module : modules)
+		{
+			module.write(out);
+		}
+	}
+
+
+	/**
+	 * Read a configuration that was written with {@link #write(DataOutput)}.
+	 *
+	 * @param in the input
+	 * @return the configuration
+	 * @throws IOException on read errors or if the data has an unknown format
+	 */
+	public static CompiledModuleConfig read(final DataInput in) throws IOException
+	{
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+		{
+			throw new IOException("Unknown format of compiled module config");
+		}
+		String hash = ConfigNode.readString(in);
+		ConfigNode root = ConfigNode.read(in);
+		int numModules = in.readInt();
+		List<ModuleDescriptor> modules = new ArrayList<>(numModules);
+		for (int i = 0; i < numModules; i++)
+		{
+			modules.add(ModuleDescriptor.read(in));
+		}
+		return new CompiledModuleConfig(hash, root, modules);
+	}
+
+
+	/**
+	 * @return the SHA-256 hash of the XML content this configuration was compiled from
+	 */
+	public String getHash()
+	{
+		return hash;
+	}
+
+
+	/**
+	 * @return the root node of the complete configuration
+	 */
+	public ConfigNode getRoot()
+	{
+		return root;
+	}
+
+
+	/**
+	 * @return all modules, each after its dependencies
+	 */
+	public List<ModuleDescriptor> getModules()
+	{
+		return modules;
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+import org.apache.commons.configuration.tree.DefaultConfigurationNode;
+
+
+/**
+ * An immutable snapshot of a node of a parsed configuration, including its attributes and children.
+ * It can be stored in a compact binary form and turned back into a commons-configuration node tree
+ * without parsing XML.
+ */
+public final class ConfigNode
+{
+	private final String name;
+	private final String value;
+	private final List<ConfigNode> attributes;
+	private final List<ConfigNode> children;
+
+
+	private ConfigNode(final String name, final String value, final List<ConfigNode> attributes,
+			final List<ConfigNode> children)
+	{
+		this.name = name;
+		this.value = value;
+		this.attributes = Collections.unmodifiableList(attributes);
+		this.children = Collections.unmodifiableList(children);
+	}
+
+
+	/**
+	 * Create a snapshot of a configuration node and all of its descendants.
+	 *
+	 * @param node the node
+	 * @return the snapshot
+	 */
+	public static ConfigNode of(final ConfigurationNode node)
+	{
+		return new ConfigNode(
+				node.getName(),
+				node.getValue() == null ? null : String.valueOf(node.getValue()),
+				node.getAttributes().stream().map(ConfigNode::of).collect(Collectors.toList()),
+				node.getChildren().stream().map(ConfigNode::of).collect(Collectors.toList()));
+	}
+
+
+	/**
+	 * @return a new, mutable commons-configuration node tree with the content of this snapshot
+	 */
+	public ConfigurationNode toConfigurationNode()
+	{
+		DefaultConfigurationNode node = new HierarchicalConfiguration.Node(name, value);
+		attributes.forEach(a -> node.addAttribute(a.toConfigurationNode()));
+		children.forEach(c -> node.addChild(c.toConfigurationNode()));
+		return node;
+	}
+
+
+	/**
+	 * @return the name of the node
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+
+	/**
+	 * @return the value of the node or null
+	 */
+	public String getValue()
+	{
+		return value;
+	}
+
+
+	/**
+	 * @return all attribute nodes
+	 */
+	public List<ConfigNode> getAttributes()
+	{
+		return attributes;
+	}
+
+
+	/**
+	 * @param attributeName the name of the attribute
+	 * @return the value of the first attribute with the given name or null
+	 */
+	public String getAttribute(final String attributeName)
+	{
+		return attributes.stream()
+				.filter(a -> a.name.equals(attributeName))
+				.map(ConfigNode::getValue)
+				.findFirst()
+				.orElse(null);
+	}
+
+
+	/**
+	 * @return all child nodes
+	 */
+	public List<ConfigNode> getChildren()
+	{
+		return children;
+	}
+
+
+	/**
+	 * @param childName the name of the children
+	 * @return all children with the given name
+	 */
+	public List<ConfigNode> getChildren(final String childName)
+	{
+		return children.stream().filter(c -> c.name.equals(childName)).collect(Collectors.toList());
+	}
+
+
+	/**
+	 * @param childName the name of the child
+	 * @return the first child with the given name or null
+	 */
+	public ConfigNode getChild(final String childName)
+	{
+		return children.stream().filter(c -> c.name.equals(childName)).findFirst().orElse(null);
+	}
+
+
+	/**
+	 * Write this node and its descendants in binary form.
+	 *
+	 * @param out the output
+	 * @throws IOException on write errors
+	 */
+	public void write(final DataOutput out) throws IOException
+	{
+		writeString(out, name);
+		writeString(out, value);
+		out.writeInt(attributes.size());
+		for (ConfigNode attribute : attributes)
+		{
+			attribute.write(out);
+		}
+		out.writeInt(children.size());
+		for (ConfigNode child : children)
+		{
+			child.write(out);
+		}
+	}
+
+
+	/**
+	 * Read a node that was written with {@link #write(DataOutput)}.
+	 *
+	 * @param in the input
+	 * @return the node
+	 * @throws IOException on read errors
+	 */
+	public static ConfigNode read(final DataInput in) throws IOException
+	{
+		String name = readString(in);
+		String value = readString(in);
+		int numAttributes = in.readInt();
+		List<ConfigNode> attributes = new ArrayList<>(numAttributes);
+		for (int i = 0; i < numAttributes; i++)
+		{
+			attributes.add(read(in));
+		}
+		int numChildren = in.readInt();
+		List<ConfigNode> children = new ArrayList<>(numChildren);
+		for (int i = 0; i < numChildren; i++)
+		{
+			children.add(read(in));
+		}
+		return new ConfigNode(name, value, attributes, children);
+	}
+
+
+	static void writeString(final DataOutput out, final String s) throws IOException
+	{
+		if (s == null)
+		{
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	static String readString(final DataInput in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0)
+		{
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		ConfigNode that = (ConfigNode) o;
+		return Objects.equals(name, that.name)
+				&& Objects.equals(value, that.value)
+				&& attributes.equals(that.attributes)
+				&& children.equals(that.children);
+	}
+
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(name, value, attributes, children);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return name + (value == null ? "" : "=" + value);
+	}
+}
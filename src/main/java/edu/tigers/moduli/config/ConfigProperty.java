@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Binds a field of a properties class to an element of the <code>properties</code> node of a module.
+ * The initial value of the field is used if the element is missing.
+ * Fields must not be <code>static</code> and should not be compile-time constants.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ConfigProperty
+{
+	/**
+	 * @return the name of the element, the field name by default
+	 */
+	String name() default "";
+
+
+	/**
+	 * @return true, if the element must be present
+	 */
+	boolean required() default false;
+
+
+	/**
+	 * @return the minimum value of a numeric property
+	 */
+	double min() default Double.NEGATIVE_INFINITY;
+
+
+	/**
+	 * @return the maximum value of a numeric property
+	 */
+	double max() default Double.POSITIVE_INFINITY;
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * A compact, immutable dependency graph over the nodes <code>0..size-1</code>.
+ * The edges are stored as adjacency arrays in compressed sparse row form, in both directions,
+ * so that the graph allocates a fixed number of arrays regardless of the number of edges.
+ * The topological order and the levels are computed once with Kahn's algorithm in O(V+E).
+ * An edge from a node to a dependency means that the dependency has to come first.
+ */
+public final class DependencyGraph
+{
+	private final int size;
+	private final int[] dependencyOffsets;
+	private final int[] dependencyTargets;
+	private final int[] dependentOffsets;
+	private final int[] dependentTargets;
+	private final int[] order;
+	private final int[] levels;
+
+
+	private DependencyGraph(final int size, final int[] from, final int[] to, final int numEdges)
+	{
+		this.size = size;
+		dependencyOffsets = new int[size + 1];
+		dependencyTargets = new int[numEdges];
+		dependentOffsets = new int[size + 1];
+		dependentTargets = new int[numEdges];
+		toAdjacency(from, to, numEdges, dependencyOffsets, dependencyTargets);
+		toAdjacency(to, from, numEdges, dependentOffsets, dependentTargets);
+
+		levels = new int[size];
+		int[] queue = new int[size];
+		int[] remaining = new int[size];
+		int head = 0;
+		int tail = 0;
+		for (int node = 0; node < size; node++)
+		{
+			remaining[node] = dependencyOffsets[node + 1] - dependencyOffsets[node];
+			if (remaining[node] == 0)
+			{
+				queue[tail++] = node;
+			}
+		}
+		while (head < tail)
+		{
+			int node = queue[head++];
+			for (int e = dependentOffsets[node]; e < dependentOffsets[node + 1]; e++)
+			{
+				int dependent = dependentTargets[e];
+				levels[dependent] = Math.max(levels[dependent], levels[node] + 1);
+				if (--remaining[dependent] == 0)
+				{
+					queue[tail++] = dependent;
+				}
+			}
+		}
+		order = tail == size ? queue : Arrays.copyOf(queue, tail);
+		for (int node = 0; node < size; node++)
+		{
+			if (remaining[node] > 0)
+			{
+				levels[node] = -1;
+			}
+		}
+	}
+
+
+	/**
+	 * Sort the edges by their source with a counting sort, keeping the insertion order per source.
+	 */
+	private static void toAdjacency(final int[] sources, final int[] targets, final int numEdges, final int[] offsets,
+			final int[] adjacency)
+	{
+		for (int e = 0; e < numEdges; e++)
+		{
+			offsets[sources[e] + 1]++;
+		}
+		for (int node = 0; node + 1 < offsets.length; node++)
+		{
+			offsets[node + 1] += offsets[node];
+		}
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		for (int e = 0; e < numEdges; e++)
+		{
+			adjacency[next[sources[e]]++] = targets[e];
+		}
+	}
+
+
+	/**
+	 * @param size the number of nodes
+	 * @return a builder for a graph with the given number of nodes
+	 */
+	public static Builder builder(final int size)
+	{
+		return new Builder(size);
+	}
+
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getEdgeCount()
+	{
+		return dependencyTargets.length;
+	}
+
+
+	/**
+	 * @return true, if the graph has no cycles
+	 */
+	public boolean isAcyclic()
+	{
+		return order.length == size;
+	}
+
+
+	/**
+	 * Nodes without dependencies come first, in ascending order. Each further node follows as soon as
+	 * all of its dependencies are ordered.
+	 * If the graph has cycles, the order only contains the nodes that neither are on a cycle
+	 * nor depend on one.
+	 *
+	 * @return the nodes, each after its dependencies
+	 */
+	public int[] getOrder()
+	{
+		return order.clone();
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return the length of the longest dependency chain below the node, 0 for nodes without dependencies
+	 *         and -1 for nodes that are on a cycle or depend on one
+	 */
+	public int getLevel(final int node)
+	{
+		return levels[node];
+	}
+
+
+	/**
+	 * All nodes of a level only depend on nodes of lower levels.
+	 *
+	 * @return the nodes per level in ascending order, starting with level 0, without nodes of cycles
+	 */
+	public int[][] getLevelSets()
+	{
+		int numLevels = 0;
+		for (int level : levels)
+		{
+			numLevels = Math.max(numLevels, level + 1);
+		}
+		int[] counts = new int[numLevels];
+		for (int level : levels)
+		{
+			if (level >= 0)
+			{
+				counts[level]++;
+			}
+		}
+		int[][] levelSets = new int[numLevels][];
+		for (int level = 0; level < numLevels; level++)
+		{
+			levelSets[level] = new int[counts[level]];
+			counts[level] = 0;
+		}
+		for (int node = 0; node < size; node++)
+		{
+			if (levels[node] >= 0)
+			{
+				levelSets[levels[node]][counts[levels[node]]++] = node;
+			}
+		}
+		return levelSets;
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return the number of direct dependencies of the node
+	 */
+	public int getDependencyCount(final int node)
+	{
+		return dependencyOffsets[node + 1] - dependencyOffsets[node];
+	}
+
+
+	/**
+	 * @param node a node
+	 * @param i the index of the dependency, in insertion order
+	 * @return the dependency
+	 */
+	public int getDependency(final int node, final int i)
+	{
+		return dependencyTargets[dependencyOffsets[node] + i];
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return the direct dependencies of the node, in insertion order
+	 */
+	public int[] getDependencies(final int node)
+	{
+		return Arrays.copyOfRange(dependencyTargets, dependencyOffsets[node], dependencyOffsets[node + 1]);
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return the nodes that depend directly on the node, in insertion order
+	 */
+	public int[] getDependents(final int node)
+	{
+		return Arrays.copyOfRange(dependentTargets, dependentOffsets[node], dependentOffsets[node + 1]);
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return all nodes that the node depends on directly or indirectly, in ascending order
+	 */
+	public int[] getTransitiveDependencies(final int node)
+	{
+		return reachable(node, dependencyOffsets, dependencyTargets);
+	}
+
+
+	/**
+	 * @param node a node
+	 * @return all nodes that depend directly or indirectly on the node, in ascending order
+	 */
+	public int[] getTransitiveDependents(final int node)
+	{
+		return reachable(node, dependentOffsets, dependentTargets);
+	}
+
+
+	private int[] reachable(final int start, final int[] offsets, final int[] targets)
+	{
+		boolean[] visited = new boolean[size];
+		int[] pending = new int[size + 1];
+		int numPending = 0;
+		int numVisited = 0;
+		pending[numPending++] = start;
+		while (numPending > 0)
+		{
+			int node = pending[--numPending];
+			for (int e = offsets[node]; e < offsets[node + 1]; e++)
+			{
+				if (!visited[targets[e]])
+				{
+					visited[targets[e]] = true;
+					numVisited++;
+					pending[numPending++] = targets[e];
+				}
+			}
+		}
+		int[] result = new int[numVisited];
+		int i = 0;
+		for (int node = 0; node < size; node++)
+		{
+			if (visited[node])
+			{
+				result[i++] = node;
+			}
+		}
+		return result;
+	}
+
+
+	/**
+	 * Find all cycles with Tarjan's algorithm for strongly connected components.
+	 * Only nodes that are not part of the topological order are visited.
+	 *
+	 * @return the nodes of each cycle in ascending order, or an empty list if the graph is acyclic
+	 */
+	public List<int[]> findCycles()
+	{
+		List<int[]> cycles = new ArrayList<>();
+		if (isAcyclic())
+		{
+			return cycles;
+		}
+
+		boolean[] ordered = new boolean[size];
+		for (int node : order)
+		{
+			ordered[node] = true;
+		}
+		int[] index = new int[size];
+		Arrays.fill(index, -1);
+		int[] low = new int[size];
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size];
+		int stackSize = 0;
+		int[] callNodes = new int[size];
+		int[] callEdges = new int[size];
+		int callDepth = 0;
+		int counter = 0;
+
+		for (int start = 0; start < size; start++)
+		{
+			if (ordered[start] || index[start] >= 0)
+			{
+				continue;
+			}
+			index[start] = counter;
+			low[start] = counter++;
+			stack[stackSize++] = start;
+			onStack[start] = true;
+			callNodes[callDepth] = start;
+			callEdges[callDepth++] = dependencyOffsets[start];
+
+			while (callDepth > 0)
+			{
+				int node = callNodes[callDepth - 1];
+				int e = callEdges[callDepth - 1];
+				if (e < dependencyOffsets[node + 1])
+				{
+					callEdges[callDepth - 1]++;
+					int next = dependencyTargets[e];
+					if (ordered[next])
+					{
+						continue;
+					}
+					if (index[next] < 0)
+					{
+						index[next] = counter;
+						low[next] = counter++;
+						stack[stackSize++] = next;
+						onStack[next] = true;
+						callNodes[callDepth] = next;
+						callEdges[callDepth++] = dependencyOffsets[next];
+					} else if (onStack[next])
+					{
+						low[node] = Math.min(low[node], index[next]);
+					}
+					continue;
+				}
+
+				callDepth--;
+				if (callDepth > 0)
+				{
+					int parent = callNodes[callDepth - 1];
+					low[parent] = Math.min(low[parent], low[node]);
+				}
+				if (low[node] == index[node])
+				{
+					int end = stackSize;
+					do
+					{
+						onStack[stack[--stackSize]] = false;
+					} while (stack[stackSize] != node);
+					int[] component = Arrays.copyOfRange(stack, stackSize, end);
+					if (component.length > 1 || dependsOnItself(node))
+					{
+						Arrays.sort(component);
+						cycles.add(component);
+					}
+				}
+			}
+		}
+		return cycles;
+	}
+
+
+	private boolean dependsOnItself(final int node)
+	{
+		for (int e = dependencyOffsets[node]; e < dependencyOffsets[node + 1]; e++)
+		{
+			if (dependencyTargets[e] == node)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Collects the edges of a {@link DependencyGraph} in primitive arrays.
+	 */
+	public static final class Builder
+	{
+		private final int size;
+		private int[] from = new int[16];
+		private int[] to = new int[16];
+		private int numEdges = 0;
+
+
+		private Builder(final int size)
+		{
+			this.size = size;
+		}
+
+
+		/**
+		 * @param node the depending node
+		 * @param dependency the node that has to come first
+		 * @return this builder
+		 * @throws IndexOutOfBoundsException if a node is not part of the graph
+		 */
+		public Builder addEdge(final int node, final int dependency)
+		{
+			if (node < 0 || node >= size || dependency < 0 || dependency >= size)
+			{
+				throw new IndexOutOfBoundsException("Edge " + node + " -> " + dependency + " outside of graph of size "
+						+ size);
+			}
+			if (numEdges == from.length)
+			{
+				from = Arrays.copyOf(from, numEdges * 2);
+				to = Arrays.copyOf(to, numEdges * 2);
+			}
+			from[numEdges] = node;
+			to[numEdges++] = dependency;
+			return this;
+		}
+
+
+		/**
+		 * @return the graph with all added edges
+		 */
+		public DependencyGraph build()
+		{
+			return new DependencyGraph(size, from, to, numEdges);
+		}
+	}
+}
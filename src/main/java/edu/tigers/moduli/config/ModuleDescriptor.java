@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * The configuration of a single module: its id, implementation, dependencies and properties.
+ * Classes are referenced by name, so that a descriptor can be stored independently of a class loader.
+ */
+public final class ModuleDescriptor
+{
+	private final String id;
+	private final String implementation;
+	private final List<String> dependencies;
+	private final ConfigNode properties;
+	private final boolean lazy;
+
+
+	/**
+	 * @param id the class name of the module id
+	 * @param implementation the class name of the implementation
+	 * @param dependencies the class names of the module ids this module depends on
+	 * @param properties the properties node or null, if the module has no properties
+	 * @param lazy whether the module should only be created on first access
+	 */
+	public ModuleDescriptor(final String id, final String implementation, final List<String> dependencies,
+			final ConfigNode properties, final boolean lazy)
+	{
+		this.id = id;
+		this.implementation = implementation;
+		this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+		this.properties = properties;
+		this.lazy = lazy;
+	}
+
+
+	/**
+	 * @return the class name of the module id
+	 */
+	public String getId()
+	{
+		return id;
+	}
+
+
+	/**
+	 * @return the class name of the implementation
+	 */
+	public String getImplementation()
+	{
+		return implementation;
+	}
+
+
+	/**
+	 * @return the class names of the module ids this module depends on
+	 */
+	public List<String> getDependencies()
+	{
+		return dependencies;
+	}
+
+
+	/**
+	 * @return the properties node or null, if the module has no properties
+	 */
+	public ConfigNode getProperties()
+	{
+		return properties;
+	}
+
+
+	/**
+	 * @return whether the module should only be created on first access
+	 */
+	public boolean isLazy()
+	{
+		return lazy;
+	}
+
+
+	void write(final DataOutput out) throws IOException
+	{
+		ConfigNode.writeString(out, id);
+		ConfigNode.writeString(out, implementation);
+		out.writeInt(dependencies.size());
+		for (String dependency : dependencies)
+		{
+			ConfigNode.writeString(out, dependency);
+		}
+		out.writeBoolean(properties != null);
+		if (properties != null)
+		{
+			properties.write(out);
+		}
+		out.writeBoolean(lazy);
+	}
+
+
+	static ModuleDescriptor read(final DataInput in) throws IOException
+	{
+		String id = ConfigNode.readString(in);
+		String implementation = ConfigNode.readString(in);
+		int numDependencies = in.readInt();
+		List<String> dependencies = new ArrayList<>(numDependencies);
+		for (int i = 0; i < numDependencies; i++)
+		{
+			dependencies.add(ConfigNode.readString(in));
+		}
+		ConfigNode properties = in.readBoolean() ? ConfigNode.read(in) : null;
+		boolean lazy = in.readBoolean();
+		return new ModuleDescriptor(id, implementation, dependencies, properties, lazy);
+	}
+
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+		ModuleDescriptor that = (ModuleDescriptor) o;
+		return id.equals(that.id)
+				&& implementation.equals(that.implementation)
+				&& dependencies.equals(that.dependencies)
+				&& Objects.equals(properties, that.properties)
+				&& lazy == that.lazy;
+	}
+
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(id, implementation, dependencies, properties, lazy);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return id;
+	}
+}
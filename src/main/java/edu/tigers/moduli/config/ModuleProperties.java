@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Declares the typed properties of a module.
+ * The <code>properties</code> node of the module is bound to the given class when the modules are loaded,
+ * see {@link PropertyBinder}, and is available from {@link edu.tigers.moduli.AModule#getProperties(Class)}.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ModuleProperties
+{
+	/**
+	 * @return the class with the {@link ConfigProperty} fields
+	 */
+	Class<?> value();
+
+
+	/**
+	 * @return true, if the properties node may contain elements that are not declared by the class
+	 */
+	boolean allowUnknown() default false;
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.config;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.apache.commons.configuration.PropertyConverter;
+
+import edu.tigers.moduli.ModuleExecutors;
+import edu.tigers.moduli.ModuleHealth;
+import edu.tigers.moduli.exceptions.LoadModulesException;
+
+
+/**
+ * Binds the properties node of a module to an instance of a properties class once, when the modules are loaded.
+ * Each field with {@link ConfigProperty} is converted and validated, so that modules read their configuration
+ * from plain fields instead of the configuration tree.
+ * Supported field types are String, the primitive types and their wrappers, enums and {@link Duration}
+ * in ISO-8601 format or as a number of milliseconds.
+ * Variables like <code>${...}</code> in the values are interpolated with the given configuration,
+ * like for the other getters of the configuration.
+ * The elements {@link ModuleExecutors#CONFIG_ELEMENT} and {@link ModuleHealth#CONFIG_ELEMENT} are interpreted
+ * by Moduli itself, so properties classes can not declare them.
+ */
+public final class PropertyBinder
+{
+	/** elements of the properties node that are interpreted by Moduli itself */
+	private static final Set<String> RESERVED_ELEMENTS = Set.of(ModuleExecutors.CONFIG_ELEMENT,
+			ModuleHealth.CONFIG_ELEMENT);
+
+
+	private PropertyBinder()
+	{
+	}
+
+
+	/**
+	 * @param moduleClass the implementation of a module
+	 * @param properties the properties node of the module or null
+	 * @return the bound properties, or null if the module does not declare {@link ModuleProperties}
+	 * @throws LoadModulesException if the properties do not match the declared class
+	 */
+	public static Object bind(final Class<?> moduleClass, final ConfigNode properties) throws LoadModulesException
+	{
+		return bind(moduleClass, properties, null);
+	}
+
+
+	/**
+	 * @param moduleClass the implementation of a module
+	 * @param properties the properties node of the module or null
+	 * @param configuration the configuration of the module to interpolate the values with or null
+	 * @return the bound properties, or null if the module does not declare {@link ModuleProperties}
+	 * @throws LoadModulesException if the properties do not match the declared class
+	 */
+	public static Object bind(final Class<?> moduleClass, final ConfigNode properties,
+			final AbstractConfiguration configuration) throws LoadModulesException
+	{
+		ModuleProperties declaration = moduleClass.getAnnotation(ModuleProperties.class);
+		if (declaration == null)
+		{
+			return null;
+		}
+		return bind(declaration.value(), properties, declaration.allowUnknown(), configuration);
+	}
+
+
+	/**
+	 * @param type the properties class with a no-arg constructor
+	 * @param properties the properties node or null
+	 * @param allowUnknown whether the node may contain elements that are not declared by the class
+	 * @return a new instance of the properties class
+	 * @throws LoadModulesException if a property is missing, invalid, unknown or reserved
+	 */
+	public static <T> T bind(final Class<T> type, final ConfigNode properties, final boolean allowUnknown)
+			throws LoadModulesException
+	{
+		return bind(type, properties, allowUnknown, null);
+	}
+
+
+	/**
+	 * @param type the properties class with a no-arg constructor
+	 * @param properties the properties node or null
+	 * @param allowUnknown whether the node may contain elements that are not declared by the class
+	 * @param configuration the configuration to interpolate the values with or null
+	 * @return a new instance of the properties class
+	 * @throws LoadModulesException if a property is missing, invalid, unknown or reserved
+	 */
+	public static <T> T bind(final Class<T> type, final ConfigNode properties, final boolean allowUnknown,
+			final AbstractConfiguration configuration) throws LoadModulesException
+	{
+		T instance = newInstance(type);
+		Set<String> declared = new HashSet<>();
+		for (Class<?> c = type; c != Object.class; c = c.getSuperclass())
+		{
+			for (Field field : c.getDeclaredFields())
+			{
+				ConfigProperty property = field.getAnnotation(ConfigProperty.class);
+				if (property == null || Modifier.isStatic(field.getModifiers()))
+				{
+					continue;
+				}
+				String name = property.name().isEmpty() ? field.getName() : property.name();
+				if (RESERVED_ELEMENTS.contains(name))
+				{
+					throw new LoadModulesException(message(type, name, "is reserved by Moduli"));
+				}
+				declared.add(name);
+				ConfigNode node = properties == null ? null : properties.getChild(name);
+				if (node == null || node.getValue() == null)
+				{
+					if (property.required())
+					{
+						throw new LoadModulesException(message(type, name, "is required"));
+					}
+					continue;
+				}
+				String rawValue = configuration == null
+						? node.getValue()
+						: String.valueOf(PropertyConverter.interpolate(node.getValue(), configuration));
+				Object value = convert(type, name, field.getType(), rawValue.trim());
+				checkRange(type, name, property, value);
+				set(field, instance, value);
+			}
+		}
+
+		if (!allowUnknown && properties != null)
+		{
+			for (ConfigNode child : properties.getChildren())
+			{
+				if (!declared.contains(child.getName()) && !RESERVED_ELEMENTS.contains(child.getName()))
+				{
+					throw new LoadModulesException(message(type, child.getName(), "is not declared"));
+				}
+			}
+		}
+		return instance;
+	}
+
+
+	private static <T> T newInstance(final Class<T> type) throws LoadModulesException
+	{
+		try
+		{
+			Constructor<T> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (NoSuchMethodException | InstantiationException | IllegalAccessException e)
+		{
+			throw new LoadModulesException("Properties class " + type.getName() + " needs a no-arg constructor", e);
+		} catch (InvocationTargetException e)
+		{
+			throw new LoadModulesException("Could not create properties " + type.getName(), e.getCause());
+		}
+	}
+
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object convert(final Class<?> type, final String name, final Class<?> fieldType,
+			final String value) throws LoadModulesException
+	{
+		try
+		{
+			if (fieldType == String.class)
+			{
+				return value;
+			} else if (fieldType == int.class || fieldType == Integer.class)
+			{
+				return Integer.parseInt(value);
+			} else if (fieldType == long.class || fieldType == Long.class)
+			{
+				return Long.parseLong(value);
+			} else if (fieldType == double.class || fieldType == Double.class)
+			{
+				return Double.parseDouble(value);
+			} else if (fieldType == float.class || fieldType == Float.class)
+			{
+				return Float.parseFloat(value);
+			} else if (fieldType == short.class || fieldType == Short.class)
+			{
+				return Short.parseShort(value);
+			} else if (fieldType == byte.class || fieldType == Byte.class)
+			{
+				return Byte.parseByte(value);
+			} else if (fieldType == boolean.class || fieldType == Boolean.class)
+			{
+				if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value))
+				{
+					throw new IllegalArgumentException("not a boolean");
+				}
+				return Boolean.parseBoolean(value);
+			} else if (fieldType == char.class || fieldType == Character.class)
+			{
+				if (value.length() != 1)
+				{
+					throw new IllegalArgumentException("not a single character");
+				}
+				return value.charAt(0);
+			} else if (fieldType.isEnum())
+			{
+				return Enum.valueOf((Class<? extends Enum>) fieldType, value);
+			} else if (fieldType == Duration.class)
+			{
+				return isInteger(value) ? Duration.ofMillis(Long.parseLong(value)) : Duration.parse(value);
+			}
+		} catch (IllegalArgumentException | DateTimeParseException e)
+		{
+			throw new LoadModulesException(message(type, name, "has an invalid value '" + value + "'"), e);
+		}
+		throw new LoadModulesException(message(type, name, "has an unsupported type " + fieldType.getName()));
+	}
+
+
+	private static boolean isInteger(final String value)
+	{
+		int start = value.startsWith("-") ? 1 : 0;
+		return value.length() > start && value.chars().skip(start).allMatch(Character::isDigit);
+	}
+
+
+	private static void checkRange(final Class<?> type, final String name, final ConfigProperty property,
+			final Object value) throws LoadModulesException
+	{
+		if (value instanceof Number)
+		{
+			double number = ((Number) value).doubleValue();
+			if (number < property.min() || number > property.max())
+			{
+				throw new LoadModulesException(message(type, name, "is " + value + ", but must be in ["
+						+ property.min() + ", " + property.max() + "]"));
+			}
+		}
+	}
+
+
+	private static void set(final Field field, final Object instance, final Object value)
+			throws LoadModulesException
+	{
+		try
+		{
+			field.setAccessible(true);
+			field.set(instance, value);
+		} catch (IllegalAccessException e)
+		{
+			throw new LoadModulesException("Could not set property " + field.getName(), e);
+		}
+	}
+
+
+	private static String message(final Class<?> type, final String name, final String problem)
+	{
+		return "Property '" + name + "' of " + type.getSimpleName() + " " + problem;
+	}
+}
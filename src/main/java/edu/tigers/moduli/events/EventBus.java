@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiPredicate;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.exceptions.DependencyException;
+
+
+/**
+ * Publish/subscribe channels between modules.
+ * Each {@link Topic} has a preallocated ring buffer with a single {@link Publisher} and any number of
+ * {@link Subscription}s, so events are passed between modules without allocation.
+ * Publishing and receiving is lock-free with the spinning {@link WaitStrategy}s. While a topic has subscriptions
+ * with {@link WaitStrategy#BLOCKING}, which is the default, each publish takes a monitor lock to wake them up.
+ * A module may only subscribe to topics of modules that it depends on, so that the publisher is started before and
+ * stopped after its subscribers.
+ */
+public class EventBus
+{
+	private final BiPredicate<Class<? extends AModule>, Class<? extends AModule>> dependencyCheck;
+	private final Map<Topic<?>, Publisher<?>> publishers = new ConcurrentHashMap<>();
+	private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+	private volatile WaitStrategy defaultWaitStrategy = WaitStrategy.BLOCKING;
+
+
+	/**
+	 * Create an event bus without dependency checks.
+	 */
+	public EventBus()
+	{
+		this((subscriber, publisher) -> true);
+	}
+
+
+	/**
+	 * @param dependencyCheck tests whether the first module depends on the second module
+	 */
+	public EventBus(final BiPredicate<Class<? extends AModule>, Class<? extends AModule>> dependencyCheck)
+	{
+		this.dependencyCheck = dependencyCheck;
+	}
+
+
+	/**
+	 * Get the publisher of a topic. Each topic has a single publisher that must only be used by one thread at a time.
+	 *
+	 * @param topic the topic
+	 * @return the publisher, which is the same instance for each call with the same topic
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Publisher<T> getPublisher(final Topic<T> topic)
+	{
+		return (Publisher<T>) publishers.computeIfAbsent(topic,
+				t -> new Publisher<>(topic, new RingBuffer<>(topic.getBufferSize(), topic.getEventFactory())));
+	}
+
+
+	/**
+	 * Subscribe a module to a topic with the default wait strategy.
+	 *
+	 * @param subscriber the id of the subscribing module
+	 * @param topic the topic
+	 * @param handler the handler for the events
+	 * @return the subscription, which receives all events published from now on
+	 * @throws DependencyException if the subscriber does not depend on the publisher of the topic
+	 */
+	public <T> Subscription<T> subscribe(final Class<? extends AModule> subscriber, final Topic<T> topic,
+			final IEventHandler<T> handler) throws DependencyException
+	{
+		return subscribe(subscriber, topic, handler, defaultWaitStrategy);
+	}
+
+
+	/**
+	 * Subscribe a module to a topic.
+	 *
+	 * @param subscriber the id of the subscribing module
+	 * @param topic the topic
+	 * @param handler the handler for the events
+	 * @param waitStrategy how the subscription waits for new events
+	 * @return the subscription, which receives all events published from now on
+	 * @throws DependencyException if the subscriber does not depend on the publisher of the topic
+	 */
+	public <T> Subscription<T> subscribe(final Class<? extends AModule> subscriber, final Topic<T> topic,
+			final IEventHandler<T> handler, final WaitStrategy waitStrategy) throws DependencyException
+	{
+		if (!subscriber.equals(topic.getPublisher()) && !dependencyCheck.test(subscriber, topic.getPublisher()))
+		{
+			throw new DependencyException("Module " + subscriber.getSimpleName() + " subscribes to topic " + topic
+					+ ", but does not depend on " + topic.getPublisher().getSimpleName());
+		}
+		Publisher<T> publisher = getPublisher(topic);
+		Subscription<T> subscription = new Subscription<>(subscriber, topic, publisher.getBuffer(), handler,
+				waitStrategy);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+
+	/**
+	 * Close all subscriptions of a module. Called by Moduli after the module was stopped and after it was deinitialized.
+	 *
+	 * @param moduleId the id of the module
+	 */
+	public void release(final Class<? extends AModule> moduleId)
+	{
+		for (Subscription<?> subscription : subscriptions)
+		{
+			if (moduleId.equals(subscription.getSubscriber()))
+			{
+				subscription.close();
+				subscriptions.remove(subscription);
+			}
+		}
+	}
+
+
+	/**
+	 * Close all subscriptions and drop all publishers with their ring buffers.
+	 * Publishers that are requested afterwards use new ring buffers.
+	 */
+	public void close()
+	{
+		subscriptions.forEach(Subscription::close);
+		subscriptions.clear();
+		publishers.clear();
+	}
+
+
+	/**
+	 * @return all open subscriptions
+	 */
+	public List<Subscription<?>> getSubscriptions()
+	{
+		List<Subscription<?>> active = new ArrayList<>(subscriptions);
+		active.removeIf(s -> !s.isActive());
+		return active;
+	}
+
+
+	/**
+	 * @return the wait strategy for subscriptions that do not specify one
+	 */
+	public WaitStrategy getDefaultWaitStrategy()
+	{
+		return defaultWaitStrategy;
+	}
+
+
+	/**
+	 * @param defaultWaitStrategy the wait strategy for subscriptions that do not specify one
+	 */
+	public void setDefaultWaitStrategy(final WaitStrategy defaultWaitStrategy)
+	{
+		this.defaultWaitStrategy = defaultWaitStrategy;
+	}
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+/**
+ * Consumes the events of a {@link Topic}.
+ * Events are delivered in batches of all events that were available when the consumer woke up.
+ *
+ * @param <T> the type of the events
+ */
+@FunctionalInterface
+public interface IEventHandler<T>
+{
+	/**
+	 * Called for each event on the thread of the subscription.
+	 * The event is owned by the ring buffer and will be overwritten later, so it must not be kept.
+	 *
+	 * @param event the event
+	 * @param sequence the sequence number of the event
+	 * @param endOfBatch true, if this is the last available event, so that batched work can be flushed
+	 * @throws Exception if the event could not be handled, the exception is logged and the next event is handled
+	 */
+	void onEvent(T event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.function.Consumer;
+
+
+/**
+ * Publishes events to a {@link Topic}. Events are written in place into the preallocated ring buffer.
+ * A publisher must only be used by one thread at a time.
+ *
+ * <pre>
+ * long sequence = publisher.next();
+ * publisher.get(sequence).set(...);
+ * publisher.publish(sequence);
+ * </pre>
+ *
+ * @param <T> the type of the events
+ */
+public final class Publisher<T>
+{
+	private final Topic<T> topic;
+	private final RingBuffer<T> buffer;
+
+
+	Publisher(final Topic<T> topic, final RingBuffer<T> buffer)
+	{
+		this.topic = topic;
+		this.buffer = buffer;
+	}
+
+
+	/**
+	 * Claim the next event. Blocks while the slowest subscriber is a full buffer behind.
+	 *
+	 * @return the sequence of the claimed event
+	 */
+	public long next()
+	{
+		return buffer.next();
+	}
+
+
+	/**
+	 * @param sequence a claimed sequence
+	 * @return the event to write
+	 */
+	public T get(final long sequence)
+	{
+		return buffer.get(sequence);
+	}
+
+
+	/**
+	 * Publish all claimed events up to the given sequence.
+	 *
+	 * @param sequence the claimed sequence
+	 */
+	public void publish(final long sequence)
+	{
+		buffer.publish(sequence);
+	}
+
+
+	/**
+	 * Claim, write and publish the next event.
+	 *
+	 * @param writer writes the event in place
+	 */
+	public void publish(final Consumer<T> writer)
+	{
+		long sequence = buffer.next();
+		writer.accept(buffer.get(sequence));
+		buffer.publish(sequence);
+	}
+
+
+	RingBuffer<T> getBuffer()
+	{
+		return buffer;
+	}
+
+
+	/**
+	 * @return the topic of this publisher
+	 */
+	public Topic<T> getTopic()
+	{
+		return topic;
+	}
+}
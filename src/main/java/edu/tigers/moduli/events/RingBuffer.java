@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+
+/**
+ * A preallocated ring of events for a single producer and multiple consumers.
+ * The producer claims a sequence, writes the event in place and publishes the sequence.
+ * Each consumer tracks its own sequence; the producer does not overwrite events that a consumer has not handled yet.
+ *
+ * @param <T> the type of the events
+ */
+final class RingBuffer<T>
+{
+	private static final long MAX_BLOCKING_WAIT_MS = 10;
+
+	private final Object[] entries;
+	private final int mask;
+	private final AtomicLong cursor = new AtomicLong(-1);
+	private final List<AtomicLong> gatingSequences = new CopyOnWriteArrayList<>();
+	private final AtomicInteger blockingConsumers = new AtomicInteger();
+	private final Object monitor = new Object();
+
+	// only accessed by the producer
+	private long nextSequence;
+	private long cachedGatingSequence = -1;
+
+
+	RingBuffer(final int size, final Supplier<T> eventFactory)
+	{
+		entries = new Object[size];
+		mask = size - 1;
+		for (int i = 0; i < size; i++)
+		{
+			entries[i] = eventFactory.get();
+		}
+	}
+
+
+	/**
+	 * Claim the next sequence. Blocks while the slowest consumer is a full buffer behind.
+	 *
+	 * @return the claimed sequence
+	 */
+	long next()
+	{
+		long sequence = nextSequence;
+		long wrapPoint = sequence - entries.length;
+		if (wrapPoint > cachedGatingSequence)
+		{
+			long minSequence;
+			while (wrapPoint > (minSequence = getMinimumGatingSequence(sequence - 1)))
+			{
+				LockSupport.parkNanos(1);
+			}
+			cachedGatingSequence = minSequence;
+		}
+		nextSequence = sequence + 1;
+		return sequence;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	T get(final long sequence)
+	{
+		return (T) entries[(int) (sequence & mask)];
+	}
+
+
+	/**
+	 * Make the event with the given sequence and all before visible to the consumers.
+	 *
+	 * @param sequence the claimed sequence
+	 */
+	void publish(final long sequence)
+	{
+		cursor.set(sequence);
+		if (blockingConsumers.get() > 0)
+		{
+			signalAll();
+		}
+	}
+
+
+	long getCursor()
+	{
+		return cursor.get();
+	}
+
+
+	/**
+	 * Block until the sequence is published or {@link #signalAll()} is called.
+	 * The wait is bounded, so that a consumer that was closed concurrently notices it.
+	 *
+	 * @param sequence the awaited sequence
+	 * @throws InterruptedException if the thread was interrupted
+	 */
+	void awaitPublished(final long sequence) throws InterruptedException
+	{
+		synchronized (monitor)
+		{
+			if (cursor.get() < sequence)
+			{
+				monitor.wait(MAX_BLOCKING_WAIT_MS);
+			}
+		}
+	}
+
+
+	void signalAll()
+	{
+		synchronized (monitor)
+		{
+			monitor.notifyAll();
+		}
+	}
+
+
+	/**
+	 * Add a consumer that starts after the currently published events.
+	 *
+	 * @param blocking whether the consumer waits with {@link WaitStrategy#BLOCKING}
+	 * @return the sequence of the consumer
+	 */
+	AtomicLong addConsumer(final boolean blocking)
+	{
+		if (blocking)
+		{
+			blockingConsumers.incrementAndGet();
+		}
+		AtomicLong sequence = new AtomicLong(cursor.get());
+		gatingSequences.add(sequence);
+		return sequence;
+	}
+
+
+	void removeConsumer(final AtomicLong sequence, final boolean blocking)
+	{
+		gatingSequences.remove(sequence);
+		if (blocking)
+		{
+			blockingConsumers.decrementAndGet();
+		}
+		signalAll();
+	}
+
+
+	private long getMinimumGatingSequence(final long defaultSequence)
+	{
+		long min = defaultSequence;
+		for (AtomicLong sequence : gatingSequences)
+		{
+			min = Math.min(min, sequence.get());
+		}
+		return min;
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.tigers.moduli.AModule;
+
+
+/**
+ * A consumer of a {@link Topic} with its own thread. It handles all events that are available at once as a batch.
+ *
+ * @param <T> the type of the events
+ */
+public final class Subscription<T> implements AutoCloseable
+{
+	private static final Logger log = LogManager.getLogger(Subscription.class.getName());
+
+	private final Class<? extends AModule> subscriber;
+	private final Topic<T> topic;
+	private final RingBuffer<T> buffer;
+	private final IEventHandler<T> handler;
+	private final WaitStrategy waitStrategy;
+	private final AtomicLong sequence;
+	private final Thread thread;
+	private volatile boolean running = true;
+
+
+	Subscription(final Class<? extends AModule> subscriber, final Topic<T> topic, final RingBuffer<T> buffer,
+			final IEventHandler<T> handler, final WaitStrategy waitStrategy)
+	{
+		this.subscriber = subscriber;
+		this.topic = topic;
+		this.buffer = buffer;
+		this.handler = handler;
+		this.waitStrategy = waitStrategy;
+		sequence = buffer.addConsumer(waitStrategy == WaitStrategy.BLOCKING);
+		String subscriberName = subscriber == null ? "" : "-" + subscriber.getSimpleName();
+		thread = new Thread(this::run, "EventBus-" + topic.getName() + subscriberName);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+
+	private void run()
+	{
+		long nextSequence = sequence.get() + 1;
+		while (running)
+		{
+			long available;
+			try
+			{
+				available = waitFor(nextSequence);
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+			for (long s = nextSequence; s <= available; s++)
+			{
+				handle(s, s == available);
+			}
+			if (available >= nextSequence)
+			{
+				sequence.lazySet(available);
+				nextSequence = available + 1;
+			}
+		}
+	}
+
+
+	private long waitFor(final long nextSequence) throws InterruptedException
+	{
+		long available;
+		int counter = 0;
+		while ((available = buffer.getCursor()) < nextSequence && running)
+		{
+			waitStrategy.idle(counter++, buffer, nextSequence);
+		}
+		return available;
+	}
+
+
+	private void handle(final long s, final boolean endOfBatch)
+	{
+		try
+		{
+			handler.onEvent(buffer.get(s), s, endOfBatch);
+		} catch (Exception e)
+		{
+			log.error("Exception while handling event " + s + " of topic " + topic, e);
+		}
+	}
+
+
+	/**
+	 * @return the id of the subscribing module or null
+	 */
+	public Class<? extends AModule> getSubscriber()
+	{
+		return subscriber;
+	}
+
+
+	/**
+	 * @return the topic
+	 */
+	public Topic<T> getTopic()
+	{
+		return topic;
+	}
+
+
+	/**
+	 * @return the sequence of the last handled event
+	 */
+	public long getSequence()
+	{
+		return sequence.get();
+	}
+
+
+	/**
+	 * @return the number of published events that were not handled yet
+	 */
+	public long getLag()
+	{
+		return buffer.getCursor() - sequence.get();
+	}
+
+
+	/**
+	 * @return true, if the subscription is still receiving events
+	 */
+	public boolean isActive()
+	{
+		return running;
+	}
+
+
+	/**
+	 * Stop receiving events. The current batch is finished before the thread terminates.
+	 */
+	@Override
+	public void close()
+	{
+		if (!running)
+		{
+			return;
+		}
+		running = false;
+		buffer.removeConsumer(sequence, waitStrategy == WaitStrategy.BLOCKING);
+	}
+
+
+	/**
+	 * Wait for the thread of this subscription to terminate after {@link #close()}.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return true, if the thread terminated
+	 * @throws InterruptedException if the current thread was interrupted
+	 */
+	public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		thread.join(unit.toMillis(timeout));
+		return !thread.isAlive();
+	}
+}
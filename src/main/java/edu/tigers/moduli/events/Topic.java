@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.function.Supplier;
+
+import edu.tigers.moduli.AModule;
+
+
+/**
+ * A typed channel of the {@link EventBus}, owned by the module that publishes to it.
+ * Topics are compared by identity, so they are usually declared as constants of the publishing module.
+ * The events are preallocated by the event factory and reused by the publisher,
+ * so publishing does not allocate.
+ *
+ * @param <T> the type of the events
+ */
+public final class Topic<T>
+{
+	/** the default number of events in the ring buffer of a topic */
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private final Class<? extends AModule> publisher;
+	private final String name;
+	private final Supplier<T> eventFactory;
+	private final int bufferSize;
+
+
+	private Topic(final Class<? extends AModule> publisher, final String name, final Supplier<T> eventFactory,
+			final int bufferSize)
+	{
+		if (Integer.bitCount(bufferSize) != 1)
+		{
+			throw new IllegalArgumentException("Buffer size must be a power of two: " + bufferSize);
+		}
+		this.publisher = publisher;
+		this.name = name;
+		this.eventFactory = eventFactory;
+		this.bufferSize = bufferSize;
+	}
+
+
+	/**
+	 * @param publisher the id of the module that publishes to this topic
+	 * @param name the name of the topic
+	 * @param eventFactory creates the preallocated events
+	 * @return a new topic with {@link #DEFAULT_BUFFER_SIZE}
+	 */
+	public static <T> Topic<T> create(final Class<? extends AModule> publisher, final String name,
+			final Supplier<T> eventFactory)
+	{
+		return new Topic<>(publisher, name, eventFactory, DEFAULT_BUFFER_SIZE);
+	}
+
+
+	/**
+	 * @param publisher the id of the module that publishes to this topic
+	 * @param name the name of the topic
+	 * @param eventFactory creates the preallocated events
+	 * @param bufferSize the number of events in the ring buffer, a power of two
+	 * @return a new topic
+	 */
+	public static <T> Topic<T> create(final Class<? extends AModule> publisher, final String name,
+			final Supplier<T> eventFactory, final int bufferSize)
+	{
+		return new Topic<>(publisher, name, eventFactory, bufferSize);
+	}
+
+
+	/**
+	 * @return the id of the module that publishes to this topic
+	 */
+	public Class<? extends AModule> getPublisher()
+	{
+		return publisher;
+	}
+
+
+	/**
+	 * @return the name of the topic
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+
+	Supplier<T> getEventFactory()
+	{
+		return eventFactory;
+	}
+
+
+	/**
+	 * @return the number of events in the ring buffer
+	 */
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return publisher.getSimpleName() + "/" + name;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * How a subscription waits for new events. The strategies trade latency against CPU usage.
+ */
+public enum WaitStrategy
+{
+	/** spin on the CPU, lowest latency, occupies a core */
+	BUSY_SPIN
+	{
+		@Override
+		void idle(final int counter, final RingBuffer<?> buffer, final long sequence)
+		{
+			Thread.onSpinWait();
+		}
+	},
+	/** spin shortly, then yield the thread */
+	YIELDING
+	{
+		@Override
+		void idle(final int counter, final RingBuffer<?> buffer, final long sequence)
+		{
+			if (counter < SPIN_TRIES)
+			{
+				Thread.onSpinWait();
+			} else
+			{
+				Thread.yield();
+			}
+		}
+	},
+	/** spin, yield and finally sleep shortly, low CPU usage with moderate latency */
+	SLEEPING
+	{
+		@Override
+		void idle(final int counter, final RingBuffer<?> buffer, final long sequence)
+		{
+			if (counter < SPIN_TRIES)
+			{
+				Thread.onSpinWait();
+			} else if (counter < 2 * SPIN_TRIES)
+			{
+				Thread.yield();
+			} else
+			{
+				LockSupport.parkNanos(SLEEP_NANOS);
+			}
+		}
+	},
+	/** block until the publisher signals new events, no CPU usage while idle */
+	BLOCKING
+	{
+		@Override
+		void idle(final int counter, final RingBuffer<?> buffer, final long sequence) throws InterruptedException
+		{
+			buffer.awaitPublished(sequence);
+		}
+	},
+	;
+
+	private static final int SPIN_TRIES = 100;
+	private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+
+	/**
+	 * Wait a moment for the sequence to be published.
+	 *
+	 * @param counter the number of previous calls while waiting for the same sequence
+	 * @param buffer the ring buffer
+	 * @param sequence the awaited sequence
+	 * @throws InterruptedException if the thread was interrupted
+	 */
+	abstract void idle(int counter, RingBuffer<?> buffer, long sequence) throws InterruptedException;
+}
@@ -24,4 +24,14 @@ public class ModuleNotFoundException extends RuntimeException
 	{
 		super(msg);
 	}
+	
+	
+	/**
+	 * @param msg of the exception
+	 * @param cause of the exception
+	 */
+	public ModuleNotFoundException(final String msg, final Throwable cause)
+	{
+		super(msg, cause);
+	}
 }
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.listenerVariables;
+
+/**
+ * Health of a started module, as determined by the watchdog of Moduli.
+ */
+public enum HealthStatus
+{
+	/** the module was not checked since it was started */
+	UNKNOWN,
+	/** the module reported a heartbeat in time and its health check passed */
+	HEALTHY,
+	/** the health check of the module failed */
+	UNHEALTHY,
+	/** the module did not report a heartbeat within its deadline */
+	STALLED,
+}
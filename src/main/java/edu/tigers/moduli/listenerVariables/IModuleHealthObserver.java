@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.listenerVariables;
+
+import edu.tigers.moduli.AModule;
+
+
+/**
+ * Observer for health changes of modules.
+ */
+@FunctionalInterface
+public interface IModuleHealthObserver
+{
+	/**
+	 * Called on the watchdog thread after the health of a module changed.
+	 *
+	 * @param module the module
+	 * @param oldStatus the previous status
+	 * @param newStatus the new status
+	 */
+	void onModuleHealthChanged(AModule module, HealthStatus oldStatus, HealthStatus newStatus);
+}
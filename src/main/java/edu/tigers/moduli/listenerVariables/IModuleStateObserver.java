@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.listenerVariables;
+
+import edu.tigers.moduli.AModule;
+
+
+/**
+ * Observer for lifecycle state changes of a single module.
+ */
+@FunctionalInterface
+public interface IModuleStateObserver
+{
+	/**
+	 * Called on the lifecycle thread after the state of the module changed.
+	 *
+	 * @param module the module
+	 * @param oldState the previous state
+	 * @param newState the new state
+	 */
+	void onModuleStateChanged(AModule module, ModuleState oldState, ModuleState newState);
+}
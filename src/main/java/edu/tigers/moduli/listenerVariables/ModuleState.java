@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.listenerVariables;
+
+/**
+ * Lifecycle states of a single module.
+ */
+public enum ModuleState
+{
+	CONSTRUCTED,
+	INITIALIZING,
+	INITIALIZED,
+	STARTING,
+	STARTED,
+	STOPPING,
+	STOPPED,
+	DEINITIALIZING,
+	DEINITIALIZED,
+	FAILED;
+
+
+	/**
+	 * A module runs through init, start, stop and deinit in this order. Starting is optional,
+	 * a failed or deinitialized module may be initialized again, and a failed module may be deinitialized.
+	 *
+	 * @param next the next state
+	 * @return true, if a module may change from this state to the next state
+	 */
+	public boolean canTransitionTo(final ModuleState next)
+	{
+		switch (this)
+		{
+			case CONSTRUCTED:
+			case DEINITIALIZED:
+				return next == INITIALIZING;
+			case INITIALIZING:
+				return next == INITIALIZED || next == FAILED;
+			case INITIALIZED:
+				return next == STARTING || next == DEINITIALIZING;
+			case STARTING:
+				return next == STARTED || next == FAILED;
+			case STARTED:
+				return next == STOPPING;
+			case STOPPING:
+				return next == STOPPED || next == FAILED;
+			case STOPPED:
+				return next == DEINITIALIZING;
+			case DEINITIALIZING:
+				return next == DEINITIALIZED || next == FAILED;
+			case FAILED:
+				return next == INITIALIZING || next == DEINITIALIZING;
+			default:
+				return false;
+		}
+	}
+}
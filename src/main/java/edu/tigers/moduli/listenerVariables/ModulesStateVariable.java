@@ -8,25 +8,51 @@
  */
 package edu.tigers.moduli.listenerVariables;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.tigers.moduli.IModuliStateObserver;
 
 
 /**
- * Create a listener on central stateApplication - variable at main-model.
+ * Holds the state of the modules and notifies observers about changes.
+ * The state is published atomically, so {@link #get()} always returns the latest state on any thread.
  */
 public class ModulesStateVariable
 {
-	private final PropertyChangeSupport support;
-	private ModulesState stateModules = ModulesState.NOT_LOADED;
+	private static final Logger log = LogManager.getLogger(ModulesStateVariable.class.getName());
+	private static final String PROPERTY_NAME = "stateModules";
+	
+	private final AtomicReference<ModulesState> stateModules = new AtomicReference<>(ModulesState.NOT_LOADED);
+	private final List<IModuliStateObserver> observers = new CopyOnWriteArrayList<>();
+	private final Executor notificationExecutor;
 	
 	
 	/**
-	 * Initialize support for property-change-listener.
+	 * Create a state variable that notifies observers synchronously on the thread that changes the state.
 	 */
 	public ModulesStateVariable()
 	{
-		support = new PropertyChangeSupport(this);
+		this(null);
+	}
+	
+	
+	/**
+	 * Create a state variable that notifies observers on the given executor, so that observers do not block the
+	 * thread that changes the state. Use a single threaded executor to receive the changes in order.
+	 *
+	 * @param notificationExecutor the executor for notifications, or null to notify synchronously
+	 */
+	public ModulesStateVariable(final Executor notificationExecutor)
+	{
+		this.notificationExecutor = notificationExecutor;
 	}
 	
 	
@@ -37,20 +63,44 @@ public class ModulesStateVariable
 	 */
 	public ModulesState get()
 	{
-		return stateModules;
+		return stateModules.get();
 	}
 	
 	
 	/**
-	 * Setter-method.
+	 * Setter-method. Observers are only notified if the state actually changed.
 	 * 
 	 * @param stateApplicationNew new state
 	 */
 	public void set(final ModulesState stateApplicationNew)
 	{
-		ModulesState oldValue = stateModules;
-		stateModules = stateApplicationNew;
-		support.firePropertyChange("stateModules", oldValue, stateApplicationNew);
+		ModulesState oldValue = stateModules.getAndSet(stateApplicationNew);
+		if (oldValue == stateApplicationNew)
+		{
+			return;
+		}
+		if (notificationExecutor == null)
+		{
+			notifyObservers(oldValue, stateApplicationNew);
+		} else
+		{
+			notificationExecutor.execute(() -> notifyObservers(oldValue, stateApplicationNew));
+		}
+	}
+	
+	
+	private void notifyObservers(final ModulesState oldValue, final ModulesState newValue)
+	{
+		for (IModuliStateObserver observer : observers)
+		{
+			try
+			{
+				observer.onModuliStateChanged(oldValue, newValue);
+			} catch (RuntimeException e)
+			{
+				log.error("Moduli state observer failed", e);
+			}
+		}
 	}
 	
 	
@@ -60,7 +110,29 @@ public class ModulesStateVariable
 	 */
 	public boolean equals(final ModulesState moduleState)
 	{
-		return stateModules.equals(moduleState);
+		return stateModules.get().equals(moduleState);
+	}
+	
+	
+	/**
+	 * Add an observer.
+	 *
+	 * @param observer the observer
+	 */
+	public void addObserver(final IModuliStateObserver observer)
+	{
+		observers.add(observer);
+	}
+	
+	
+	/**
+	 * Remove an observer.
+	 *
+	 * @param observer the observer
+	 */
+	public void removeObserver(final IModuliStateObserver observer)
+	{
+		observers.remove(observer);
 	}
 	
 	
@@ -68,10 +140,12 @@ public class ModulesStateVariable
 	 * Add a change-listener.
 	 * 
 	 * @param listener PropertyChangeListener
+	 * @deprecated use {@link #addObserver(IModuliStateObserver)}
 	 */
+	@Deprecated
 	public void addChangeListener(final PropertyChangeListener listener)
 	{
-		support.addPropertyChangeListener(listener);
+		observers.add(new PropertyChangeAdapter(this, listener));
 	}
 	
 	
@@ -79,10 +153,39 @@ public class ModulesStateVariable
 	 * Remove a change-listener.
 	 * 
 	 * @param listener PropertyChangeListener
+	 * @deprecated use {@link #removeObserver(IModuliStateObserver)}
 	 */
+	@Deprecated
 	public void removeChangeListener(final PropertyChangeListener listener)
 	{
-		support.removePropertyChangeListener(listener);
+		for (IModuliStateObserver observer : observers)
+		{
+			if (observer instanceof PropertyChangeAdapter && ((PropertyChangeAdapter) observer).listener == listener)
+			{
+				observers.remove(observer);
+				return;
+			}
+		}
 	}
 	
+	
+	private static final class PropertyChangeAdapter implements IModuliStateObserver
+	{
+		private final Object source;
+		private final PropertyChangeListener listener;
+		
+		
+		private PropertyChangeAdapter(final Object source, final PropertyChangeListener listener)
+		{
+			this.source = source;
+			this.listener = listener;
+		}
+		
+		
+		@Override
+		public void onModuliStateChanged(final ModulesState oldState, final ModulesState newState)
+		{
+			listener.propertyChange(new PropertyChangeEvent(source, PROPERTY_NAME, oldState, newState));
+		}
+	}
 }
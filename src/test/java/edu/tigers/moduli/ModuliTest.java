@@ -5,20 +5,67 @@
 package edu.tigers.moduli;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import edu.tigers.moduli.config.CompiledConfigCache;
+import edu.tigers.moduli.config.CompiledModuleConfig;
+import edu.tigers.moduli.config.DependencyGraph;
+import edu.tigers.moduli.config.PropertyBinder;
+import edu.tigers.moduli.events.EventBus;
+import edu.tigers.moduli.events.Publisher;
+import edu.tigers.moduli.events.Subscription;
+import edu.tigers.moduli.events.Topic;
+import edu.tigers.moduli.events.WaitStrategy;
 import edu.tigers.moduli.exceptions.DependencyException;
 import edu.tigers.moduli.exceptions.InitModuleException;
 import edu.tigers.moduli.exceptions.LoadModulesException;
 import edu.tigers.moduli.exceptions.ModuleNotFoundException;
 import edu.tigers.moduli.exceptions.StartModuleException;
+import edu.tigers.moduli.listenerVariables.HealthStatus;
+import edu.tigers.moduli.listenerVariables.ModuleState;
 import edu.tigers.moduli.listenerVariables.ModulesState;
+import edu.tigers.moduli.listenerVariables.ModulesStateVariable;
+import edu.tigers.moduli.modules.BlockingTestModule;
 import edu.tigers.moduli.modules.ConcreteTestModule;
 import edu.tigers.moduli.modules.ConfiguredTestModule;
+import edu.tigers.moduli.modules.ExecutorTestModule;
+import edu.tigers.moduli.modules.FailingTestModule;
+import edu.tigers.moduli.modules.HealthTestModule;
+import edu.tigers.moduli.modules.ReservedConfigTestModule;
+import edu.tigers.moduli.modules.StatefulTestModule;
+import edu.tigers.moduli.modules.SubscribingTestModule;
 import edu.tigers.moduli.modules.TestModule;
+import edu.tigers.moduli.modules.TypedConfigTestModule;
 import edu.tigers.moduli.modules.UnusedConcreteTestModule;
 
 
@@ -29,6 +76,26 @@ public class ModuliTest
 	private static final String EMPTY_CONFIG_XML = "empty_config.xml";
 	private static final String CYCLIC_CONFIG_XML = "cyclic_config.xml";
 	private static final String UNRESOLVED_DEPENDENCY_CONFIG_XML = "unresolved_dependency_config.xml";
+	private static final String PARALLEL_CONFIG_XML = "parallel_config.xml";
+	private static final String FAILING_CONFIG_XML = "failing_config.xml";
+	private static final String DEGRADED_CONFIG_XML = "degraded_config.xml";
+	private static final String EXECUTOR_CONFIG_XML = "executor_config.xml";
+	private static final String TYPED_CONFIG_XML = "typed_config.xml";
+	private static final String INVALID_TYPED_CONFIG_XML = "invalid_typed_config.xml";
+	private static final String INTERPOLATED_TYPED_CONFIG_XML = "interpolated_typed_config.xml";
+	private static final String BLOCKING_CONFIG_XML = "blocking_config.xml";
+	private static final String RELOAD_CONFIG_XML = "reload_config.xml";
+	private static final String DEGRADED_RELOAD_CONFIG_XML = "degraded_reload_config.xml";
+	private static final String STATEFUL_RELOAD_CONFIG_XML = "stateful_reload_config.xml";
+	private static final String LAZY_CONFIG_XML = "lazy_config.xml";
+	private static final String STATIC_STATE_CONFIG_XML = "static_state_config.xml";
+	private static final String HEALTH_CONFIG_XML = "health_config.xml";
+	private static final String STATEFUL_CONFIG_XML = "stateful_config.xml";
+	private static final String STATEFUL_CHANGED_CONFIG_XML = "stateful_changed_config.xml";
+	private static final String SUBSCRIBING_CONFIG_XML = "subscribing_config.xml";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
 
 	private Moduli moduli;
 
@@ -128,6 +195,54 @@ public class ModuliTest
 	}
 
 
+	@Test
+	public void testCycleMembers()
+	{
+		String xml = "<moduli>"
+				+ "<module id=\"a\"><dependency>b</dependency></module>"
+				+ "<module id=\"b\"><dependency>c</dependency></module>"
+				+ "<module id=\"c\"><dependency>b</dependency></module>"
+				+ "<module id=\"d\"><dependency>d</dependency></module>"
+				+ "<module id=\"e\"/>"
+				+ "</moduli>";
+		assertThat(catchThrowable(() -> CompiledModuleConfig.compile(xml.getBytes(StandardCharsets.UTF_8))))
+				.isInstanceOf(DependencyException.class)
+				.hasMessage("Cycle in dependencies: [b, c], [d]");
+	}
+
+
+	@Test
+	public void testDependencyGraph()
+	{
+		DependencyGraph graph = DependencyGraph.builder(5)
+				.addEdge(0, 2)
+				.addEdge(1, 2)
+				.addEdge(3, 0)
+				.addEdge(3, 1)
+				.build();
+		assertThat(graph.isAcyclic()).isTrue();
+		assertThat(graph.getEdgeCount()).isEqualTo(4);
+		assertThat(graph.getOrder()).containsExactly(2, 4, 0, 1, 3);
+		assertThat(graph.getLevelSets()).containsExactly(new int[] { 2, 4 }, new int[] { 0, 1 }, new int[] { 3 });
+		assertThat(graph.getDependencies(3)).containsExactly(0, 1);
+		assertThat(graph.getDependents(2)).containsExactly(0, 1);
+		assertThat(graph.getTransitiveDependencies(3)).containsExactly(0, 1, 2);
+		assertThat(graph.getTransitiveDependents(2)).containsExactly(0, 1, 3);
+		assertThat(graph.findCycles()).isEmpty();
+
+		DependencyGraph cyclic = DependencyGraph.builder(4)
+				.addEdge(0, 1)
+				.addEdge(1, 2)
+				.addEdge(2, 1)
+				.addEdge(3, 3)
+				.build();
+		assertThat(cyclic.isAcyclic()).isFalse();
+		assertThat(cyclic.getOrder()).isEmpty();
+		assertThat(cyclic.getLevel(0)).isEqualTo(-1);
+		assertThat(cyclic.findCycles()).containsExactly(new int[] { 1, 2 }, new int[] { 3 });
+	}
+
+
 	@Test(expected = DependencyException.class)
 	public void testUnresolvedDependencyConfiguration() throws DependencyException, LoadModulesException
 	{
@@ -145,4 +260,1058 @@ public class ModuliTest
 
 		moduli.getModule(UnusedConcreteTestModule.class);
 	}
+
+
+	@Test
+	public void testParallelModuleCycle() throws InitModuleException, StartModuleException
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + PARALLEL_CONFIG_XML);
+		assertThat(moduli.isParallelLifecycle()).isTrue();
+		TestModule module = moduli.getModule(TestModule.class);
+
+		moduli.startModules();
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+		assertThat(module.isInitialized()).isTrue();
+		assertThat(module.isStarted()).isTrue();
+		assertThat(moduli.getModule(ConfiguredTestModule.class).getConfigProperty()).isEqualTo("exists");
+
+		moduli.stopModules();
+		assertThat(module.isStopped()).isTrue();
+		assertThat(module.isDeinitialized()).isTrue();
+	}
+
+
+	@Test
+	public void testCustomLifecycleExecutor() throws InitModuleException, StartModuleException
+	{
+		assertThat(moduli.getLifecycleExecutor()).isInstanceOf(VirtualThreadLifecycleExecutor.isAvailable()
+				? VirtualThreadLifecycleExecutor.class
+				: PlatformThreadLifecycleExecutor.class);
+
+		AtomicInteger executions = new AtomicInteger();
+		PlatformThreadLifecycleExecutor pool = new PlatformThreadLifecycleExecutor(2);
+		moduli.setLifecycleExecutor(task -> {
+			executions.incrementAndGet();
+			pool.execute(task);
+		});
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + PARALLEL_CONFIG_XML);
+		int numModules = moduli.getModules().size();
+
+		moduli.startModules();
+		moduli.stopModules();
+		pool.shutdown();
+		assertThat(executions.get()).isEqualTo(4 * numModules);
+
+		// setting the current executor again must not shut it down
+		PlatformThreadLifecycleExecutor shared = new PlatformThreadLifecycleExecutor(2);
+		moduli.setLifecycleExecutor(shared);
+		moduli.setLifecycleExecutor(shared);
+		moduli.startModules();
+		moduli.stopModules();
+		shared.shutdown();
+		assertThat(catchThrowable(() -> moduli.setLifecycleExecutor(null))).isInstanceOf(NullPointerException.class);
+	}
+
+
+	@Test(expected = InitModuleException.class)
+	public void testParallelInitFailure() throws InitModuleException, StartModuleException
+	{
+		moduli.setParallelLifecycle(true);
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + FAILING_CONFIG_XML);
+		moduli.startModules();
+	}
+
+
+	@Test
+	public void testParallelStopTimeout() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + BLOCKING_CONFIG_XML);
+		assertThat(moduli.getModuleStopTimeout()).isEqualTo(Duration.ofMillis(100));
+		TestModule module = moduli.getModule(TestModule.class);
+		BlockingTestModule blocking = moduli.getModule(BlockingTestModule.class);
+		moduli.startModules();
+
+		// the stop of the blocking module waits until it is released, so the shutdown can only finish by the timeout
+		moduli.stopModules();
+		assertThat(module.isStopped()).isTrue();
+		assertThat(module.isDeinitialized()).isTrue();
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.RESOLVED);
+
+		// the timed out module is deinitialized as soon as its stop finished
+		assertThat(blocking.getState()).isEqualTo(ModuleState.STOPPING);
+		assertThat(blocking.isDeinitialized()).isFalse();
+		CompletableFuture<AModule> deinitialized = blocking.awaitState(ModuleState.DEINITIALIZED);
+		blocking.releaseStop();
+		deinitialized.get(5, TimeUnit.SECONDS);
+		assertThat(blocking.isDeinitialized()).isTrue();
+	}
+
+
+	@Test
+	public void testRestartAfterStopTimeout() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + BLOCKING_CONFIG_XML);
+		BlockingTestModule blocking = moduli.getModule(BlockingTestModule.class);
+		moduli.startModules();
+		moduli.stopModules();
+		assertThat(blocking.getState()).isEqualTo(ModuleState.STOPPING);
+
+		// the start waits for the timed out module to be deinitialized
+		moduli.setModuleStopTimeout(Duration.ofSeconds(10));
+		blocking.releaseStop();
+		moduli.startModules();
+		assertThat(blocking.isDeinitialized()).isTrue();
+		assertThat(blocking.getState()).isEqualTo(ModuleState.STARTED);
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+
+		moduli.stopModules();
+		assertThat(blocking.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+	}
+
+
+	@Test
+	public void testStopTimeoutExcludesQueueing() throws Exception
+	{
+		AModule slow = new ConcreteTestModule();
+		AModule queued = new ConcreteTestModule();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		List<AModule> failed = new CopyOnWriteArrayList<>();
+		CountDownLatch slowTimedOut = new CountDownLatch(1);
+		// the slow module blocks the only thread until its timeout was reported
+		Set<AModule> timedOut = new DependencyScheduler(List.of(slow, queued), m -> List.of()).runTolerant(executor,
+				m -> {
+					if (m == slow)
+					{
+						assertThat(slowTimedOut.await(10, TimeUnit.SECONDS)).isTrue();
+					}
+				}, Duration.ofMillis(200), (m, err) -> {
+					failed.add(m);
+					slowTimedOut.countDown();
+				});
+		executor.shutdown();
+
+		// the queued module waited for the slow one, but did not exceed the timeout itself
+		assertThat(timedOut).containsExactly(slow);
+		assertThat(failed).containsExactly(slow);
+	}
+
+
+	@Test
+	public void testIndependentModulesRunConcurrently() throws Exception
+	{
+		AModule first = new ConcreteTestModule();
+		AModule second = new ConcreteTestModule();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		List<AModule> failed = new CopyOnWriteArrayList<>();
+		// both actions only pass the barrier if they run at the same time
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		Set<AModule> timedOut = new DependencyScheduler(List.of(first, second), m -> List.of()).runTolerant(executor,
+				m -> barrier.await(10, TimeUnit.SECONDS), Duration.ofSeconds(10), (m, err) -> failed.add(m));
+		executor.shutdown();
+
+		assertThat(timedOut).isEmpty();
+		assertThat(failed).isEmpty();
+	}
+
+
+	@Test
+	public void testModulesStateObserver() throws Exception
+	{
+		ExecutorService notifier = Executors.newSingleThreadExecutor();
+		moduli.setModulesState(new ModulesStateVariable(notifier));
+		List<ModulesState> states = new CopyOnWriteArrayList<>();
+		moduli.getModulesState().addObserver(new IModuliStateObserver()
+		{
+			@Override
+			public void onModuliStateChanged(final ModulesState state)
+			{
+				states.add(state);
+			}
+		});
+
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		moduli.startModules();
+		moduli.getModulesState().set(ModulesState.ACTIVE);
+		moduli.stopModules();
+
+		notifier.shutdown();
+		assertThat(notifier.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(states).containsExactly(ModulesState.RESOLVED, ModulesState.ACTIVE, ModulesState.RESOLVED);
+	}
+
+
+	@Test
+	public void testAwaitModuleState() throws InitModuleException, StartModuleException
+	{
+		CompletableFuture<TestModule> started = moduli.awaitState(TestModule.class, ModuleState.STARTED);
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		TestModule module = moduli.getModule(TestModule.class);
+		assertThat(module.getState()).isEqualTo(ModuleState.CONSTRUCTED);
+		assertThat(started).isNotDone();
+
+		moduli.startModules();
+		assertThat(started).isCompletedWithValue(module);
+		assertThat(moduli.awaitState(TestModule.class, ModuleState.STARTED)).isCompletedWithValue(module);
+
+		moduli.stopModules();
+		assertThat(module.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+	}
+
+
+	@Test
+	public void testFailingStateObserver() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		TestModule module = moduli.getModule(TestModule.class);
+		module.addStateObserver((m, oldState, newState) -> {
+			throw new IllegalStateException("Failing on purpose");
+		});
+		moduli.getModulesState().addObserver(new IModuliStateObserver()
+		{
+			@Override
+			public void onModuliStateChanged(final ModulesState state)
+			{
+				throw new IllegalStateException("Failing on purpose");
+			}
+		});
+
+		moduli.startModules();
+		assertThat(module.getState()).isEqualTo(ModuleState.STARTED);
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+		moduli.stopModules();
+		assertThat(module.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+	}
+
+
+	@Test
+	public void testModuleStateTransitions() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		AModule module = moduli.getModule(TestModule.class);
+		assertThat(module.setState(ModuleState.STARTED)).isFalse();
+		assertThat(module.getState()).isEqualTo(ModuleState.CONSTRUCTED);
+
+		module.setStartModule(false);
+		CompletableFuture<AModule> started = module.awaitState(ModuleState.STARTED);
+		moduli.startModules();
+		assertThat(module.getState()).isEqualTo(ModuleState.INITIALIZED);
+		assertThat(started).isNotDone();
+		moduli.stopModules();
+		assertThat(started).isCompletedExceptionally();
+
+		// stale transitions of a late lifecycle action do not overwrite the final state
+		assertThat(module.setState(ModuleState.STOPPED)).isFalse();
+		assertThat(module.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+
+		CompletableFuture<AModule> cancelled = module.awaitState(ModuleState.STARTED);
+		cancelled.cancel(false);
+		module.setStartModule(true);
+		moduli.startModules();
+		assertThat(cancelled).isCancelled();
+		assertThat(module.getState()).isEqualTo(ModuleState.STARTED);
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testAwaitFailedModuleState()
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + FAILING_CONFIG_XML);
+		CompletableFuture<FailingTestModule> started = moduli.awaitState(FailingTestModule.class,
+				ModuleState.STARTED);
+
+		Throwable error = catchThrowable(moduli::startModules);
+		assertThat(error).isInstanceOf(InitModuleException.class);
+		assertThat(moduli.getModule(FailingTestModule.class).getState()).isEqualTo(ModuleState.FAILED);
+		assertThat(started).isCompletedExceptionally();
+	}
+
+
+	@Test
+	public void testDegradedStartup() throws InitModuleException, StartModuleException
+	{
+		assertDegradedStartup(false);
+	}
+
+
+	@Test
+	public void testParallelDegradedStartup() throws InitModuleException, StartModuleException
+	{
+		assertDegradedStartup(true);
+	}
+
+
+	private void assertDegradedStartup(boolean parallel) throws InitModuleException, StartModuleException
+	{
+		moduli.setParallelLifecycle(parallel);
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + DEGRADED_CONFIG_XML);
+		assertThat(moduli.getStartupPolicy()).isEqualTo(StartupPolicy.DEGRADED);
+
+		StartupResult result = moduli.startModules();
+		assertThat(result.isComplete()).isFalse();
+		assertThat(result.getFailedModules()).containsOnlyKeys(FailingTestModule.class);
+		assertThat(result.getSkippedModules()).containsExactly(ConfiguredTestModule.class);
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+
+		TestModule module = moduli.getModule(TestModule.class);
+		assertThat(module.isStarted()).isTrue();
+		assertThat(moduli.getModule(FailingTestModule.class).getState()).isEqualTo(ModuleState.DEINITIALIZED);
+		assertThat(moduli.getModule(ConfiguredTestModule.class).getState()).isEqualTo(ModuleState.DEINITIALIZED);
+
+		moduli.stopModules();
+		assertThat(module.isDeinitialized()).isTrue();
+	}
+
+
+	@Test
+	public void testModuleExecutors() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + EXECUTOR_CONFIG_XML);
+		moduli.startModules();
+		ExecutorTestModule module = moduli.getModule(ExecutorTestModule.class);
+
+		List<ExecutorMetrics> metrics = moduli.getExecutorMetrics().get(ExecutorTestModule.class);
+		assertThat(metrics).extracting(ExecutorMetrics::getName).containsExactlyInAnyOrder("worker", "timer");
+		// the pool counts a task as completed only after its future was completed
+		ExecutorMetrics worker = getExecutorMetrics("worker");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (worker.getCompletedTasks() == 0 && System.nanoTime() < deadline)
+		{
+			Thread.sleep(5);
+			worker = getExecutorMetrics("worker");
+		}
+		assertThat(worker.getType()).isEqualTo(ExecutorType.FIXED);
+		assertThat(worker.getThreads()).isEqualTo(2);
+		assertThat(worker.getCompletedTasks()).isEqualTo(1);
+		assertThat(worker.getUtilization()).isPositive();
+		assertThat(ModuleExecutors.parseThreads("0.5C", 1))
+				.isEqualTo(Math.max(1, Math.round(0.5f * Runtime.getRuntime().availableProcessors())));
+
+		ExecutorService burst = module.getExecutors().getExecutor("burst");
+		List<Future<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+		{
+			tasks.add(burst.submit(() -> {
+				Thread.sleep(20);
+				return null;
+			}));
+		}
+		for (Future<?> task : tasks)
+		{
+			task.get();
+		}
+		ExecutorMetrics burstMetrics = getExecutorMetrics("burst");
+		// the four tasks ran on more threads than configured
+		assertThat(burstMetrics.getUtilization()).isPositive().isLessThanOrEqualTo(1.0);
+
+		moduli.stopModules();
+		assertThat(module.getWorker().isShutdown()).isTrue();
+		assertThat(moduli.getExecutorMetrics()).isEmpty();
+		assertThat(catchThrowable(() -> module.getExecutors().getExecutor("worker")))
+				.isInstanceOf(IllegalStateException.class);
+
+		ExecutorService stoppedWorker = module.getWorker();
+		moduli.startModules();
+		assertThat(module.getWorker()).isNotSameAs(stoppedWorker);
+		assertThat(module.getWorker().isShutdown()).isFalse();
+		moduli.stopModules();
+	}
+
+
+	private ExecutorMetrics getExecutorMetrics(final String name)
+	{
+		return moduli.getExecutorMetrics().get(ExecutorTestModule.class).stream()
+				.filter(m -> m.getName().equals(name))
+				.findFirst()
+				.orElseThrow();
+	}
+
+
+	@Test
+	public void testResourceUsage() throws Exception
+	{
+		Assume.assumeTrue(ModuleResources.isSupported());
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + EXECUTOR_CONFIG_XML);
+		moduli.startModules();
+		ExecutorTestModule module = moduli.getModule(ExecutorTestModule.class);
+		int allocations = 1000;
+		long sum = module.getWorker().submit(() -> {
+			long result = 0;
+			for (int i = 0; i < allocations; i++)
+			{
+				result += new byte[10_000].length;
+			}
+			return result;
+		}).get();
+		assertThat(sum).isEqualTo(10_000_000L);
+
+		ResourceUsage usage = moduli.sampleResources().get(ExecutorTestModule.class);
+		// the second task started the second thread of the worker
+		assertThat(usage.getThreads()).isEqualTo(3);
+		assertThat(usage.getAllocatedBytes()).isGreaterThanOrEqualTo(10_000_000L);
+		assertThat(usage.getCpuTimeNanos()).isPositive();
+		assertThat(usage.getAllocationRate()).isPositive();
+		assertThat(moduli.getResourceUsage()).containsEntry(ExecutorTestModule.class, usage);
+
+		moduli.stopModules();
+		// the worker threads unregister themselves after the executor terminated
+		ResourceUsage stopped = moduli.sampleResources().get(ExecutorTestModule.class);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (stopped.getThreads() != 0 && System.nanoTime() < deadline)
+		{
+			Thread.sleep(5);
+			stopped = moduli.sampleResources().get(ExecutorTestModule.class);
+		}
+		assertThat(stopped.getThreads()).isZero();
+		assertThat(stopped.getAllocatedBytes()).isGreaterThanOrEqualTo(usage.getAllocatedBytes());
+		assertThat(stopped.getCpuTimeNanos()).isGreaterThanOrEqualTo(usage.getCpuTimeNanos());
+	}
+
+
+	@Test
+	public void testResourceSampling() throws Exception
+	{
+		Assume.assumeTrue(ModuleResources.isSupported());
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + EXECUTOR_CONFIG_XML);
+		moduli.setResourceSamplingInterval(Duration.ofMillis(10));
+		moduli.startModules();
+		ModuleResources resources = moduli.getModule(ExecutorTestModule.class).getResources();
+
+		// one thread of the worker and one of the timer were started in startModule
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (resources.getUsage().getThreads() != 2 && System.nanoTime() < deadline)
+		{
+			Thread.sleep(5);
+		}
+		assertThat(resources.getUsage().getThreads()).isEqualTo(2);
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testStateSnapshot() throws Exception
+	{
+		Path snapshotFile = tempFolder.newFolder().toPath().resolve("modules.state");
+		moduli.setStateSnapshotFile(snapshotFile);
+		moduli.loadModules(MODULE_CONFIG_PATH + STATEFUL_CONFIG_XML);
+		moduli.startModules();
+		StatefulTestModule module = moduli.getModule(StatefulTestModule.class);
+		assertThat(module.isRestored()).isFalse();
+		module.getTable()[0] = 42;
+		module.getTable()[3] = 7;
+		moduli.stopModules();
+		assertThat(snapshotFile).exists();
+
+		Moduli restarted = new Moduli();
+		restarted.setStateSnapshotFile(snapshotFile);
+		restarted.loadModules(MODULE_CONFIG_PATH + STATEFUL_CONFIG_XML);
+		restarted.startModules();
+		StatefulTestModule restoredModule = restarted.getModule(StatefulTestModule.class);
+		assertThat(restoredModule.isRestored()).isTrue();
+		assertThat(restoredModule.getTable()).containsExactly(42, 0, 0, 7);
+		restarted.stopModules();
+
+		Moduli withoutState = new Moduli();
+		withoutState.setStateSnapshotFile(snapshotFile);
+		withoutState.loadModules(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		withoutState.startModules();
+		withoutState.stopModules();
+		assertThat(ModuleStateSnapshot.read(snapshotFile).size()).isEqualTo(1);
+
+		Moduli reconfigured = new Moduli();
+		reconfigured.setStateSnapshotFile(snapshotFile);
+		reconfigured.loadModules(MODULE_CONFIG_PATH + STATEFUL_CHANGED_CONFIG_XML);
+		reconfigured.startModules();
+		assertThat(reconfigured.getModule(StatefulTestModule.class).isRestored()).isFalse();
+		reconfigured.stopModules();
+
+		Files.write(snapshotFile, "invalid".getBytes(StandardCharsets.UTF_8));
+		moduli.startModules();
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+		moduli.stopModules();
+
+		assertThat(ModuleStateSnapshot.classFingerprint(StatefulTestModule.class))
+				.isEqualTo(ModuleStateSnapshot.classFingerprint(StatefulTestModule.class))
+				.isNotEqualTo(ModuleStateSnapshot.classFingerprint(ConcreteTestModule.class));
+	}
+
+
+	@Test
+	public void testStateSnapshotKeepsUncapturedStates() throws Exception
+	{
+		ByteBuffer shared = ByteBuffer.allocate(1);
+		AModule other = new AModule()
+		{
+			@Override
+			public ByteBuffer snapshotState()
+			{
+				return shared;
+			}
+		};
+		other.setId(UnusedConcreteTestModule.class);
+		shared.put(0, (byte) 1);
+		ModuleStateSnapshot.Entry entry = ModuleStateSnapshot.capture(other, null);
+		shared.put(0, (byte) 2);
+
+		Path snapshotFile = tempFolder.newFolder().toPath().resolve("modules.state");
+		ModuleStateSnapshot.write(snapshotFile, List.of(entry));
+		assertThat(ModuleStateSnapshot.read(snapshotFile).getState(other, null).get(0)).isEqualTo((byte) 1);
+
+		moduli.setStateSnapshotFile(snapshotFile);
+		moduli.loadModules(MODULE_CONFIG_PATH + STATEFUL_CONFIG_XML);
+		moduli.startModules();
+		moduli.stopModules();
+		ModuleStateSnapshot snapshot = ModuleStateSnapshot.read(snapshotFile);
+		assertThat(snapshot.size()).isEqualTo(2);
+		assertThat(snapshot.getState(other, null).get(0)).isEqualTo((byte) 1);
+	}
+
+
+	@Test
+	public void testEventBus() throws Exception
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + PARALLEL_CONFIG_XML);
+		EventBus eventBus = moduli.getEventBus();
+		Topic<long[]> topic = Topic.create(TestModule.class, "values", () -> new long[1], 8);
+		Topic<long[]> reverseTopic = Topic.create(ConfiguredTestModule.class, "values", () -> new long[1]);
+		assertThat(catchThrowable(() -> eventBus.subscribe(TestModule.class, reverseTopic, (e, s, b) -> {
+		}))).isInstanceOf(DependencyException.class);
+
+		int numEvents = 10_000;
+		AtomicLong sum = new AtomicLong();
+		AtomicLong received = new AtomicLong();
+		List<Subscription<long[]>> subscriptions = List.of(
+				eventBus.subscribe(ConfiguredTestModule.class, topic, (e, s, b) -> {
+					sum.addAndGet(e[0]);
+					received.incrementAndGet();
+				}),
+				eventBus.subscribe(ConfiguredTestModule.class, topic, (e, s, b) -> received.incrementAndGet(),
+						WaitStrategy.YIELDING));
+
+		Publisher<long[]> publisher = eventBus.getPublisher(topic);
+		for (int i = 1; i <= numEvents; i++)
+		{
+			long value = i;
+			publisher.publish(e -> e[0] = value);
+		}
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (received.get() < 2L * numEvents && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(1);
+		}
+		assertThat(received.get()).isEqualTo(2L * numEvents);
+		assertThat(sum.get()).isEqualTo((long) numEvents * (numEvents + 1) / 2);
+
+		eventBus.release(ConfiguredTestModule.class);
+		for (Subscription<long[]> subscription : subscriptions)
+		{
+			assertThat(subscription.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(eventBus.getSubscriptions()).isEmpty();
+
+		// loading the modules again drops the ring buffers of the old modules
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + PARALLEL_CONFIG_XML);
+		assertThat(eventBus.getPublisher(topic)).isNotSameAs(publisher);
+	}
+
+
+	@Test
+	public void testInitOnlyModuleReleasesSubscriptions() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + SUBSCRIBING_CONFIG_XML);
+		moduli.startModules();
+		SubscribingTestModule module = moduli.getModule(SubscribingTestModule.class);
+		assertThat(module.getState()).isEqualTo(ModuleState.INITIALIZED);
+		Subscription<long[]> subscription = module.getSubscription();
+		assertThat(moduli.getEventBus().getSubscriptions()).containsExactly(subscription);
+
+		moduli.stopModules();
+		assertThat(module.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+		assertThat(subscription.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(moduli.getEventBus().getSubscriptions()).isEmpty();
+	}
+
+
+	@Test
+	public void testModuleHandle()
+	{
+		ModuleHandle<TestModule> handle = moduli.getModuleHandle(TestModule.class);
+		assertThat(handle.isBound()).isFalse();
+		assertThat(moduli.getModuleHandle(TestModule.class)).isSameAs(handle);
+
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		assertThat(handle.get()).isSameAs(moduli.getModule(TestModule.class));
+		assertThat(moduli.getModuleHandle(ConcreteTestModule.class).get()).isSameAs(handle.get());
+
+		TestModule previous = handle.get();
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		assertThat(handle.get()).isNotSameAs(previous).isSameAs(moduli.getModule(TestModule.class));
+
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + EMPTY_CONFIG_XML);
+		assertThat(handle.isBound()).isFalse();
+		assertThat(handle.getOrNull()).isNull();
+	}
+
+
+	@Test
+	public void testLifecycleReport() throws InitModuleException, StartModuleException
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		moduli.startModules();
+		moduli.stopModules();
+
+		LifecycleReport report = moduli.getLifecycleReport();
+		assertThat(report.getModuleTimings()).hasSize(2);
+		ModuleTiming timing = report.getModuleTiming(TestModule.class).orElseThrow();
+		for (LifecyclePhase phase : LifecyclePhase.values())
+		{
+			assertThat(timing.getWallNanos(phase)).isGreaterThanOrEqualTo(0);
+		}
+		assertThat(report.getInitCriticalPath()).containsExactly(TestModule.class, ConfiguredTestModule.class);
+		assertThat(report.getStartCriticalPath()).containsExactly(TestModule.class, ConfiguredTestModule.class);
+		// on a single chain, the critical paths contain all modules
+		assertThat(report.getCriticalPathDuration()).isEqualTo(report.getTotalStartupWallTime());
+		assertThat(report.getConstructionTime()).isEqualTo(Duration.ofNanos(
+				report.getModuleTimings().stream().mapToLong(t -> t.getWallNanos(LifecyclePhase.CONSTRUCT)).sum()));
+	}
+
+
+	@Test
+	public void testModuleGraph()
+	{
+		moduli.loadModulesSafe(MODULE_CONFIG_PATH + DEGRADED_CONFIG_XML);
+		ModuleGraph graph = moduli.getModuleGraph();
+
+		List<List<Class<? extends AModule>>> levelSets = graph.getLevelSets();
+		assertThat(levelSets).hasSize(2);
+		assertThat(levelSets.get(0)).containsExactlyInAnyOrder(TestModule.class, FailingTestModule.class);
+		assertThat(levelSets.get(1)).containsExactly(ConfiguredTestModule.class);
+		assertThat(graph.getDependents(FailingTestModule.class)).containsExactly(ConfiguredTestModule.class);
+		assertThat(graph.getTransitiveDependents(FailingTestModule.class)).containsExactly(ConfiguredTestModule.class);
+		assertThat(graph.getTransitiveDependents(TestModule.class)).isEmpty();
+		assertThat(graph.getTransitiveDependencies(ConfiguredTestModule.class)).containsExactly(FailingTestModule.class);
+
+		Map<Class<? extends AModule>, Long> weights = Map.of(
+				TestModule.class, 10L,
+				FailingTestModule.class, 5L,
+				ConfiguredTestModule.class, 1L);
+		assertThat(graph.getCriticalPath(weights::get)).containsExactly(TestModule.class);
+		assertThat(graph.getCriticalPath(id -> 1)).containsExactly(FailingTestModule.class,
+				ConfiguredTestModule.class);
+
+		// the init of one module and the start of an independent one can not overlap
+		ModuleTiming initTiming = new ModuleTiming(TestModule.class);
+		initTiming.record(LifecyclePhase.INIT, 10, 0);
+		ModuleTiming startTiming = new ModuleTiming(FailingTestModule.class);
+		startTiming.record(LifecyclePhase.START, 10, 0);
+		LifecycleReport report = LifecycleReport.create(graph,
+				Map.of(TestModule.class, initTiming, FailingTestModule.class, startTiming));
+		assertThat(report.getInitCriticalPath()).containsExactly(TestModule.class);
+		assertThat(report.getInitCriticalPathDuration()).isEqualTo(Duration.ofNanos(10));
+		assertThat(report.getStartCriticalPathDuration()).isEqualTo(Duration.ofNanos(10));
+		assertThat(report.getCriticalPathDuration()).isEqualTo(Duration.ofNanos(20));
+
+		assertThat(graph.toDot())
+				.contains("\"edu.tigers.moduli.modules.ConfiguredTestModule\" [label=\"ConfiguredTestModule\"];")
+				.contains("\"edu.tigers.moduli.modules.ConfiguredTestModule\" -> \"edu.tigers.moduli.modules.FailingTestModule\";");
+		assertThat(graph.toJson()).contains("{\"id\":\"edu.tigers.moduli.modules.ConfiguredTestModule\",\"level\":1,"
+				+ "\"dependencies\":[\"edu.tigers.moduli.modules.FailingTestModule\"]}");
+		assertThat(ModuleGraph.quoteJson("a\"b\\c\n")).isEqualTo("\"a\\\"b\\\\c\\u000a\"");
+	}
+
+
+	@Test
+	public void testTypedProperties() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + TYPED_CONFIG_XML);
+		TypedConfigTestModule.Properties properties = moduli.getModule(TypedConfigTestModule.class)
+				.getProperties(TypedConfigTestModule.Properties.class);
+		assertThat(properties.getName()).isEqualTo("vision");
+		assertThat(properties.getRate()).isEqualTo(60.5);
+		assertThat(properties.getMaxRetries()).isEqualTo(3);
+		assertThat(properties.getUnit()).isEqualTo(TimeUnit.SECONDS);
+		assertThat(properties.getTimeout()).isEqualTo(Duration.ofMillis(500));
+	}
+
+
+	@Test
+	public void testInterpolatedTypedProperties() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + INTERPOLATED_TYPED_CONFIG_XML);
+		TypedConfigTestModule.Properties properties = moduli.getModule(TypedConfigTestModule.class)
+				.getProperties(TypedConfigTestModule.Properties.class);
+		assertThat(properties.getName()).isEqualTo("MODULI");
+		assertThat(properties.getMaxRetries()).isEqualTo(5);
+		assertThat(properties.getTimeout()).isEqualTo(Duration.ofMillis(250));
+	}
+
+
+	@Test(expected = LoadModulesException.class)
+	public void testInvalidTypedProperties() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + INVALID_TYPED_CONFIG_XML);
+	}
+
+
+	@Test
+	public void testReservedTypedProperty()
+	{
+		assertThat(catchThrowable(() -> PropertyBinder.bind(ReservedConfigTestModule.class, null)))
+				.isInstanceOf(LoadModulesException.class)
+				.hasMessageContaining("'executor'");
+	}
+
+
+	@Test
+	public void testIndexedModules() throws Exception
+	{
+		ModuleFactories factories = ModuleFactories.shared();
+		IModuleFactory factory = factories.get(ConcreteTestModule.class.getName());
+		assertThat(factory.getId()).isEqualTo(TestModule.class);
+		assertThat(factory.create()).isInstanceOf(ConcreteTestModule.class);
+		assertThat(factories.get(ConfiguredTestModule.class.getName()).getDependencies())
+				.containsExactly(TestModule.class);
+
+		moduli.loadModules(factories);
+		assertThat(moduli.getModules()).hasSize(2);
+		moduli.startModules();
+		assertThat(moduli.getModule(TestModule.class)).isInstanceOf(ConcreteTestModule.class);
+		assertThat(moduli.getModule(TestModule.class).isStarted()).isTrue();
+		assertThat(moduli.dependsOn(ConfiguredTestModule.class, TestModule.class)).isTrue();
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testModuleConstructors()
+	{
+		assertThat(ModuleConstructors.get(FailingTestModule.class)).isSameAs(
+				ModuleConstructors.get(FailingTestModule.class));
+		assertThat(ModuleConstructors.create(FailingTestModule.class)).isInstanceOf(FailingTestModule.class);
+		assertThat(catchThrowable(() -> ModuleConstructors.create(TestModule.class)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+	@Test
+	public void testLatencyHistogram()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 1000; i++)
+		{
+			histogram.record(i * 1000);
+		}
+		histogram.record(-5);
+		LatencyHistogram.LatencySnapshot snapshot = histogram.getSnapshot();
+		assertThat(snapshot.getCount()).isEqualTo(1001);
+		assertThat(snapshot.getMaxNanos()).isEqualTo(1_000_000);
+		assertThat(snapshot.getP50Nanos()).isBetween(500_000L, 508_000L);
+		assertThat(snapshot.getP99Nanos()).isBetween(990_000L, 1_000_000L);
+		assertThat(snapshot.getValueAtPercentile(0)).isZero();
+		assertThat(new LatencyHistogram().getSnapshot().getP99Nanos()).isZero();
+	}
+
+
+	@Test
+	public void testModuleHealth() throws Exception
+	{
+		List<HealthStatus> changes = new CopyOnWriteArrayList<>();
+		moduli.addHealthObserver((m, oldStatus, newStatus) -> changes.add(newStatus));
+		moduli.loadModules(MODULE_CONFIG_PATH + HEALTH_CONFIG_XML);
+		moduli.startModules();
+		HealthTestModule module = moduli.getModule(HealthTestModule.class);
+		assertThat(module.getHealth().getDeadline()).isEqualTo(Duration.ofMillis(50));
+		// only the stall step depends on the deadline, the other checks must not stall on a slow machine
+		module.getHealth().setDeadline(Duration.ofSeconds(10));
+
+		module.beat();
+		module.beat();
+		assertThat(moduli.checkModuleHealth()).containsEntry(HealthTestModule.class, HealthStatus.HEALTHY)
+				.containsEntry(TestModule.class, HealthStatus.HEALTHY);
+		assertThat(module.getHealth().getLatency().getCount()).isEqualTo(2);
+
+		module.setHealthy(false);
+		assertThat(moduli.checkModuleHealth()).containsEntry(HealthTestModule.class, HealthStatus.UNHEALTHY);
+		module.setHealthy(true);
+
+		module.getHealth().setDeadline(Duration.ofMillis(50));
+		Thread.sleep(60);
+		assertThat(moduli.checkModuleHealth()).containsEntry(HealthTestModule.class, HealthStatus.STALLED);
+		assertThat(moduli.getModule(TestModule.class).getHealth().getStatus()).isEqualTo(HealthStatus.HEALTHY);
+		module.getHealth().setDeadline(Duration.ofSeconds(10));
+		module.beat();
+		assertThat(moduli.checkModuleHealth()).containsEntry(HealthTestModule.class, HealthStatus.HEALTHY);
+		assertThat(module.getHealth().getLatency().getMaxNanos()).isGreaterThanOrEqualTo(60_000_000L);
+		assertThat(changes).containsExactly(HealthStatus.HEALTHY, HealthStatus.HEALTHY, HealthStatus.UNHEALTHY,
+				HealthStatus.STALLED, HealthStatus.HEALTHY);
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testWatchdog() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + HEALTH_CONFIG_XML);
+		CompletableFuture<AModule> stalled = new CompletableFuture<>();
+		moduli.addHealthObserver((m, oldStatus, newStatus) -> {
+			if (newStatus == HealthStatus.STALLED)
+			{
+				stalled.complete(m);
+			}
+		});
+		moduli.setWatchdogInterval(Duration.ofMillis(10));
+		moduli.startModules();
+
+		assertThat(stalled.get(5, TimeUnit.SECONDS)).isInstanceOf(HealthTestModule.class);
+		moduli.stopModules();
+		assertThat(moduli.getModuleHealth().get(HealthTestModule.class).getStatus()).isEqualTo(HealthStatus.STALLED);
+	}
+
+
+	@Test
+	public void testConcurrentReload() throws Exception
+	{
+		ModuliBlueprint blueprint = ModuliBlueprint.load(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		moduli.loadModules(blueprint);
+		assertThat(moduli.getModules()).isSameAs(moduli.getModules());
+		assertThat(moduli.getModules()).extracting(AModule::getId)
+				.containsExactly(TestModule.class, ConfiguredTestModule.class);
+
+		AtomicInteger partialSnapshots = new AtomicInteger();
+		CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+			for (int i = 0; i < 100_000; i++)
+			{
+				List<AModule> snapshot = moduli.getModules();
+				if (snapshot.size() == 1)
+				{
+					partialSnapshots.incrementAndGet();
+				}
+				moduli.getModuleOpt(TestModule.class).ifPresent(m -> assertThat(m).isInstanceOf(TestModule.class));
+			}
+		});
+		while (!reader.isDone())
+		{
+			moduli.loadModules(blueprint);
+		}
+		reader.join();
+		assertThat(partialSnapshots.get()).isZero();
+	}
+
+
+	@Test
+	public void testBlueprintInstances() throws Exception
+	{
+		ModuliBlueprint blueprint = ModuliBlueprint.load(MODULE_CONFIG_PATH + TEST_CONFIG_XML).requireIsolation();
+		assertThat(blueprint.getModules()).extracting(ModuliBlueprint.ModuleTemplate::getId)
+				.containsExactly(TestModule.class, ConfiguredTestModule.class);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<CompletableFuture<TestModule>> runs = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+			{
+				runs.add(CompletableFuture.supplyAsync(() -> {
+					try
+					{
+						Moduli instance = blueprint.instantiate();
+						instance.startModules();
+						TestModule module = instance.getModule(TestModule.class);
+						assertThat(module.isStarted()).isTrue();
+						assertThat(instance.getModule(ConfiguredTestModule.class).getConfigProperty()).isEqualTo("exists");
+						instance.stopModules();
+						return module;
+					} catch (LoadModulesException | InitModuleException | StartModuleException e)
+					{
+						throw new IllegalStateException(e);
+					}
+				}, executor));
+			}
+			List<TestModule> testModules = runs.stream().map(CompletableFuture::join).collect(Collectors.toList());
+			assertThat(testModules).doesNotHaveDuplicates().allMatch(TestModule::isStopped);
+		} finally
+		{
+			executor.shutdown();
+		}
+
+		moduli.loadModules(blueprint);
+		assertThat(moduli.dependsOn(ConfiguredTestModule.class, TestModule.class)).isTrue();
+		moduli.startModules();
+		assertThat(moduli.reloadModules(blueprint)).isEmpty();
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testBlueprintStaticState() throws Exception
+	{
+		ModuliBlueprint blueprint = ModuliBlueprint.load(MODULE_CONFIG_PATH + STATIC_STATE_CONFIG_XML);
+		assertThat(blueprint.findStaticState()).extracting(Field::getName).containsExactly("STARTED", "instances");
+		assertThat(catchThrowable(blueprint::requireIsolation))
+				.isInstanceOf(LoadModulesException.class)
+				.hasMessageContaining("StaticStateTestModule.instances");
+	}
+
+
+	@Test
+	public void testCompiledConfigCache() throws Exception
+	{
+		File cacheDir = tempFolder.newFolder();
+		moduli.setConfigCache(new CompiledConfigCache(cacheDir.toPath()));
+		moduli.loadModules(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		assertThat(cacheDir.list()).hasSize(1);
+
+		Moduli cachedModuli = new Moduli();
+		cachedModuli.setConfigCache(new CompiledConfigCache(cacheDir.toPath()));
+		cachedModuli.loadModules(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		assertThat(cachedModuli.getGlobalConfiguration().getString("environment")).isEqualTo("MODULI");
+		assertThat(cachedModuli.isModuleLoaded(ConcreteTestModule.class)).isTrue();
+
+		cachedModuli.startModules();
+		assertThat(cachedModuli.getModule(ConfiguredTestModule.class).getConfigProperty()).isEqualTo("exists");
+		cachedModuli.stopModules();
+	}
+
+
+	@Test
+	public void testCompiledConfigCacheIsBounded() throws Exception
+	{
+		CompiledConfigCache cache = new CompiledConfigCache(null, 1);
+		CompiledModuleConfig compiled = cache.load(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		assertThat(cache.load(MODULE_CONFIG_PATH + TEST_CONFIG_XML)).isSameAs(compiled);
+
+		cache.load(MODULE_CONFIG_PATH + RELOAD_CONFIG_XML);
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.load(MODULE_CONFIG_PATH + TEST_CONFIG_XML)).isNotSameAs(compiled);
+	}
+
+
+	@Test
+	public void testReloadChangedModule() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + TEST_CONFIG_XML);
+		moduli.startModules();
+		TestModule testModule = moduli.getModule(TestModule.class);
+		ConfiguredTestModule configuredModule = moduli.getModule(ConfiguredTestModule.class);
+
+		assertThat(moduli.reloadModules(MODULE_CONFIG_PATH + RELOAD_CONFIG_XML))
+				.containsExactly(ConfiguredTestModule.class);
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+		assertThat(moduli.getModule(TestModule.class)).isSameAs(testModule);
+		assertThat(testModule.isStopped()).isFalse();
+		assertThat(moduli.getModule(ConfiguredTestModule.class)).isNotSameAs(configuredModule);
+		assertThat(moduli.getModule(ConfiguredTestModule.class).getConfigProperty()).isEqualTo("changed");
+
+		assertThat(moduli.reloadModules(MODULE_CONFIG_PATH + RELOAD_CONFIG_XML)).isEmpty();
+		moduli.stopModules();
+		assertThat(testModule.isStopped()).isTrue();
+	}
+
+
+	@Test
+	public void testReloadDegraded() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + DEGRADED_RELOAD_CONFIG_XML);
+		assertThat(moduli.startModules().isComplete()).isTrue();
+		TestModule testModule = moduli.getModule(TestModule.class);
+
+		assertThat(moduli.reloadModules(MODULE_CONFIG_PATH + DEGRADED_CONFIG_XML)).isEmpty();
+		assertThat(moduli.getModulesState().get()).isEqualTo(ModulesState.ACTIVE);
+		assertThat(moduli.getModule(TestModule.class)).isSameAs(testModule);
+		assertThat(testModule.isStarted()).isTrue();
+		// both were initialized and rolled back, when the failing module could not be started
+		assertThat(moduli.getModule(FailingTestModule.class).getState()).isEqualTo(ModuleState.DEINITIALIZED);
+		assertThat(moduli.getModule(ConfiguredTestModule.class).getState()).isEqualTo(ModuleState.DEINITIALIZED);
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testReloadRestoresState() throws Exception
+	{
+		moduli.setStateSnapshotFile(tempFolder.newFolder().toPath().resolve("modules.state"));
+		moduli.loadModules(MODULE_CONFIG_PATH + STATEFUL_CONFIG_XML);
+		moduli.startModules();
+		StatefulTestModule module = moduli.getModule(StatefulTestModule.class);
+		module.getTable()[1] = 42;
+
+		assertThat(moduli.reloadModules(MODULE_CONFIG_PATH + STATEFUL_RELOAD_CONFIG_XML))
+				.containsExactly(TestModule.class, StatefulTestModule.class);
+		StatefulTestModule restartedModule = moduli.getModule(StatefulTestModule.class);
+		assertThat(restartedModule).isNotSameAs(module);
+		assertThat(restartedModule.isRestored()).isTrue();
+		assertThat(restartedModule.getTable()).containsExactly(0, 42, 0, 0);
+		moduli.stopModules();
+	}
+
+
+	@Test
+	public void testLazyModule() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + LAZY_CONFIG_XML);
+		assertThat(moduli.getModules()).hasSize(2);
+		assertThat(moduli.isModuleLoaded(UnusedConcreteTestModule.class)).isTrue();
+		ModuleHandle<UnusedConcreteTestModule> handle = moduli.getModuleHandle(UnusedConcreteTestModule.class);
+		assertThat(handle.isBound()).isFalse();
+
+		moduli.startModules();
+		assertThat(moduli.getModule(TestModule.class).isStarted()).isTrue();
+
+		UnusedConcreteTestModule lazyModule = handle.get();
+		assertThat(lazyModule.isStarted()).isTrue();
+		assertThat(moduli.getModule(UnusedConcreteTestModule.class)).isSameAs(lazyModule);
+		assertThat(moduli.getModules()).hasSize(3);
+
+		moduli.stopModules();
+		assertThat(lazyModule.isStopped()).isTrue();
+		assertThat(lazyModule.isDeinitialized()).isTrue();
+	}
+
+
+	@Test
+	public void testLazyModuleDuringStartup() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + LAZY_CONFIG_XML);
+		List<UnusedConcreteTestModule> fetched = new CopyOnWriteArrayList<>();
+		moduli.getModule(ConfiguredTestModule.class).addStateObserver((m, oldState, newState) -> {
+			if (newState == ModuleState.STARTING)
+			{
+				fetched.add(moduli.getModule(UnusedConcreteTestModule.class));
+			}
+		});
+		moduli.startModules();
+
+		assertThat(fetched).hasSize(1);
+		UnusedConcreteTestModule lazyModule = fetched.get(0);
+		assertThat(lazyModule.getState()).isEqualTo(ModuleState.STARTED);
+		assertThat(moduli.getModules()).contains(lazyModule);
+
+		moduli.stopModules();
+		assertThat(lazyModule.isStopped()).isTrue();
+		assertThat(lazyModule.getState()).isEqualTo(ModuleState.DEINITIALIZED);
+	}
+
+
+	@Test
+	public void testConcurrentLazyModule() throws Exception
+	{
+		moduli.loadModules(MODULE_CONFIG_PATH + LAZY_CONFIG_XML);
+		moduli.startModules();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<CompletableFuture<UnusedConcreteTestModule>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++)
+		{
+			futures.add(CompletableFuture.supplyAsync(() -> moduli.getModule(UnusedConcreteTestModule.class),
+					executor));
+		}
+		UnusedConcreteTestModule lazyModule = futures.get(0).get(10, TimeUnit.SECONDS);
+		for (CompletableFuture<UnusedConcreteTestModule> future : futures)
+		{
+			assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(lazyModule);
+		}
+		executor.shutdown();
+		assertThat(lazyModule.getState()).isEqualTo(ModuleState.STARTED);
+		assertThat(moduli.getModules()).hasSize(3);
+		moduli.stopModules();
+	}
 }
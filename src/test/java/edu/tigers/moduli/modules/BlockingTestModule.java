@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import edu.tigers.moduli.AModule;
+
+
+public class BlockingTestModule extends AModule
+{
+	private final CountDownLatch stopReleased = new CountDownLatch(1);
+	private volatile boolean deinitialized = false;
+
+
+	@Override
+	public void stopModule()
+	{
+		try
+		{
+			stopReleased.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	@Override
+	public void deinitModule()
+	{
+		deinitialized = true;
+	}
+
+
+	public void releaseStop()
+	{
+		stopReleased.countDown();
+	}
+
+
+	public boolean isDeinitialized()
+	{
+		return deinitialized;
+	}
+}
@@ -4,6 +4,10 @@
 
 package edu.tigers.moduli.modules;
 
+import edu.tigers.moduli.annotation.Module;
+
+
+@Module(id = TestModule.class)
 public class ConcreteTestModule extends TestModule
 {
 	private boolean isConstructed = false;
@@ -5,8 +5,10 @@
 package edu.tigers.moduli.modules;
 
 import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.annotation.Module;
 
 
+@Module(dependsOn = TestModule.class)
 public class ConfiguredTestModule extends AModule
 {
 	private String configProperty;
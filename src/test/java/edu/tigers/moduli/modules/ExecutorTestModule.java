@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.exceptions.StartModuleException;
+
+
+public class ExecutorTestModule extends AModule
+{
+	private ExecutorService worker;
+
+
+	@Override
+	public void startModule() throws StartModuleException
+	{
+		worker = getExecutors().getExecutor("worker");
+		try
+		{
+			worker.submit(() -> {
+				Thread.sleep(10);
+				return null;
+			}).get();
+			getExecutors().getScheduledExecutor("timer").schedule(() -> null, 1, TimeUnit.MILLISECONDS).get();
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new StartModuleException("Interrupted", e);
+		} catch (ExecutionException e)
+		{
+			throw new StartModuleException("Task failed", e);
+		}
+	}
+
+
+	public ExecutorService getWorker()
+	{
+		return worker;
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.exceptions.InitModuleException;
+import edu.tigers.moduli.exceptions.StartModuleException;
+
+
+public class FailingTestModule extends AModule
+{
+	@Override
+	public void initModule() throws InitModuleException
+	{
+		if (!getSubnodeConfiguration().getBoolean("failOnStart", false))
+		{
+			throw new InitModuleException("Failing on purpose", new IllegalStateException());
+		}
+	}
+
+
+	@Override
+	public void startModule() throws StartModuleException
+	{
+		throw new StartModuleException("Failing on purpose", new IllegalStateException());
+	}
+}
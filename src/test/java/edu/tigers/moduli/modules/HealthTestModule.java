@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import edu.tigers.moduli.AModule;
+
+
+public class HealthTestModule extends AModule
+{
+	private volatile boolean healthy = true;
+
+
+	@Override
+	public boolean checkHealth()
+	{
+		return healthy;
+	}
+
+
+	public void beat()
+	{
+		heartbeat();
+	}
+
+
+	public void setHealthy(final boolean healthy)
+	{
+		this.healthy = healthy;
+	}
+}
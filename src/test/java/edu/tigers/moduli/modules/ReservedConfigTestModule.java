@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.config.ConfigProperty;
+import edu.tigers.moduli.config.ModuleProperties;
+
+
+@ModuleProperties(ReservedConfigTestModule.Properties.class)
+public class ReservedConfigTestModule extends AModule
+{
+	public static class Properties
+	{
+		/** collides with the executor configuration of Moduli */
+		@ConfigProperty
+		private String executor;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import java.nio.ByteBuffer;
+
+import edu.tigers.moduli.AModule;
+
+
+public class StatefulTestModule extends AModule
+{
+	private long[] table;
+	private boolean restored;
+
+
+	@Override
+	public void initModule()
+	{
+		table = new long[getSubnodeConfiguration().getInt("size", 4)];
+	}
+
+
+	@Override
+	public ByteBuffer snapshotState()
+	{
+		ByteBuffer state = ByteBuffer.allocate(table.length * Long.BYTES);
+		state.asLongBuffer().put(table);
+		return state;
+	}
+
+
+	@Override
+	public void restoreState(final ByteBuffer state)
+	{
+		state.asLongBuffer().get(table);
+		restored = true;
+	}
+
+
+	public long[] getTable()
+	{
+		return table;
+	}
+
+
+	public boolean isRestored()
+	{
+		return restored;
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.tigers.moduli.AModule;
+
+
+public class StaticStateTestModule extends AModule
+{
+	private static final String NAME = "static";
+	private static final List<String> STARTED = new ArrayList<>();
+	private static int instances = 0;
+
+
+	public StaticStateTestModule()
+	{
+		instances++;
+	}
+
+
+	@Override
+	public void startModule()
+	{
+		STARTED.add(NAME + instances);
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.events.Subscription;
+import edu.tigers.moduli.events.Topic;
+import edu.tigers.moduli.exceptions.DependencyException;
+import edu.tigers.moduli.exceptions.InitModuleException;
+
+
+/**
+ * A module that subscribes in its init, but is never started.
+ */
+public class SubscribingTestModule extends AModule
+{
+	private Subscription<long[]> subscription;
+
+
+	public SubscribingTestModule()
+	{
+		setStartModule(false);
+	}
+
+
+	@Override
+	public void initModule() throws InitModuleException
+	{
+		Topic<long[]> topic = Topic.create(SubscribingTestModule.class, "values", () -> new long[1]);
+		try
+		{
+			subscription = getEventBus().subscribe(SubscribingTestModule.class, topic, (e, s, b) -> {
+			});
+		} catch (DependencyException e)
+		{
+			throw new InitModuleException("Could not subscribe", e);
+		}
+	}
+
+
+	public Subscription<long[]> getSubscription()
+	{
+		return subscription;
+	}
+}
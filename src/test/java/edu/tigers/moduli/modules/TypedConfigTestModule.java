@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2009 - 2026, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.moduli.modules;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.moduli.config.ConfigProperty;
+import edu.tigers.moduli.config.ModuleProperties;
+
+
+@ModuleProperties(TypedConfigTestModule.Properties.class)
+public class TypedConfigTestModule extends AModule
+{
+	public static class Properties
+	{
+		@ConfigProperty(required = true)
+		private String name;
+
+		@ConfigProperty(min = 0, max = 1000)
+		private double rate = 1.0;
+
+		@ConfigProperty(name = "retries")
+		private int maxRetries = 3;
+
+		@ConfigProperty
+		private TimeUnit unit = TimeUnit.MILLISECONDS;
+
+		@ConfigProperty
+		private Duration timeout = Duration.ofSeconds(1);
+
+
+		public String getName()
+		{
+			return name;
+		}
+
+
+		public double getRate()
+		{
+			return rate;
+		}
+
+
+		public int getMaxRetries()
+		{
+			return maxRetries;
+		}
+
+
+		public TimeUnit getUnit()
+		{
+			return unit;
+		}
+
+
+		public Duration getTimeout()
+		{
+			return timeout;
+		}
+	}
+}